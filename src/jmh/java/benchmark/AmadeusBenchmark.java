@@ -0,0 +1,105 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import main.Amadeus;
+import storage.Storage;
+
+/**
+ * Measures commands end to end, from the input line to the response text, including persistence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class AmadeusBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private File directory;
+    private Amadeus amadeus;
+    private String findCommand;
+    private String listPageCommand;
+    private String addCommand;
+    private String deleteCommand;
+
+    /**
+     * Writes a task file and starts a bot on it.
+     *
+     * @throws IOException If the temporary directory cannot be created.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("amadeus-bench").toFile();
+        String path = new File(directory, "tasks.txt").getPath();
+        new Storage(path).saveTasks(TaskGenerator.generateTasks(size, TaskGenerator.SEED));
+        amadeus = new Amadeus(path);
+
+        findCommand = TaskGenerator.command(TaskGenerator.CommandShape.FIND);
+        listPageCommand = TaskGenerator.command(TaskGenerator.CommandShape.LIST_PAGE);
+        addCommand = TaskGenerator.command(TaskGenerator.CommandShape.TODO);
+        deleteCommand = "delete " + (size + 1);
+    }
+
+    /**
+     * Stops the bot and deletes its files.
+     */
+    @TearDown
+    public void tearDown() {
+        amadeus.shutdown();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * Searches the list.
+     *
+     * @return Response to the command.
+     */
+    @Benchmark
+    public String find() {
+        return amadeus.getResponse(findCommand);
+    }
+
+    /**
+     * Lists one page of tasks.
+     *
+     * @return Response to the command.
+     */
+    @Benchmark
+    public String listPage() {
+        return amadeus.getResponse(listPageCommand);
+    }
+
+    /**
+     * Adds a task and deletes it again, so that the list keeps its size.
+     *
+     * @return Response to the delete command.
+     */
+    @Benchmark
+    public String addAndDelete() {
+        amadeus.getResponse(addCommand);
+        return amadeus.getResponse(deleteCommand);
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import command.CommandHandler;
+import tasks.TaskList;
+import tasks.TaskMatch;
+
+/**
+ * Measures fuzzy searches for a misspelled word found in about one task in ten, for two misspelled words,
+ * and for a word close to no task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class FuzzySearchBenchmark {
+
+    /** Misspelling of {@link TaskGenerator#COMMON_WORD} */
+    private static final String TYPO = "reprot";
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private TaskList tasks;
+
+    /**
+     * Generates the list and builds its fuzzy search index, which is otherwise built by the first search.
+     */
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(TaskGenerator.generateTasks(size, TaskGenerator.SEED));
+        tasks.findFuzzy(TYPO, CommandHandler.FUZZY_RESULT_LIMIT);
+    }
+
+    /**
+     * Searches for one misspelled word.
+     *
+     * @return Best matches.
+     */
+    @Benchmark
+    public List<TaskMatch> fuzzyWord() {
+        return tasks.findFuzzy(TYPO, CommandHandler.FUZZY_RESULT_LIMIT);
+    }
+
+    /**
+     * Searches for two misspelled words, both of which must match.
+     *
+     * @return Best matches.
+     */
+    @Benchmark
+    public List<TaskMatch> fuzzyPhrase() {
+        return tasks.findFuzzy("revew " + TYPO, CommandHandler.FUZZY_RESULT_LIMIT);
+    }
+
+    /**
+     * Searches for a word close to no task.
+     *
+     * @return Best matches.
+     */
+    @Benchmark
+    public List<TaskMatch> fuzzyMiss() {
+        return tasks.findFuzzy(TaskGenerator.MISSING_WORD, CommandHandler.FUZZY_RESULT_LIMIT);
+    }
+}
@@ -0,0 +1,84 @@
+package benchmark;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import command.CommandHandler;
+import parser.Parser;
+import storage.Storage;
+import tasks.TaskList;
+import ui.Ui;
+
+/**
+ * Measures rendering of the list command, written to a sink that discards the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ListRenderingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private CommandHandler handler;
+    private Ui ui;
+    private Parser.Command listAll;
+    private Parser.Command listPage;
+    private Parser.Command listRange;
+
+    /**
+     * Generates the list and parses the list commands.
+     */
+    @Setup
+    public void setUp() {
+        TaskList tasks = new TaskList(TaskGenerator.generateTasks(size, TaskGenerator.SEED));
+        ui = new Ui(Writer.nullWriter());
+        // Listing never saves, so the storage file is never created
+        handler = new CommandHandler(tasks, new Storage("unused.txt"), ui);
+        listAll = Parser.parse(TaskGenerator.command(TaskGenerator.CommandShape.LIST));
+        listPage = Parser.parse(TaskGenerator.command(TaskGenerator.CommandShape.LIST_PAGE));
+        listRange = Parser.parse(TaskGenerator.command(TaskGenerator.CommandShape.LIST_RANGE));
+    }
+
+    /**
+     * Lists every task.
+     */
+    @Benchmark
+    public void listAll() {
+        handler.handleCommand(listAll);
+        ui.flush();
+    }
+
+    /**
+     * Lists one page of tasks.
+     */
+    @Benchmark
+    public void listPage() {
+        handler.handleCommand(listPage);
+        ui.flush();
+    }
+
+    /**
+     * Lists a range of 101 tasks.
+     */
+    @Benchmark
+    public void listRange() {
+        handler.handleCommand(listRange);
+        ui.flush();
+    }
+}
@@ -0,0 +1,52 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import parser.Parser;
+
+/**
+ * Measures parsing of every command shape.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param
+    public TaskGenerator.CommandShape shape;
+
+    private String input;
+
+    /**
+     * Prepares the command line of the benchmarked shape.
+     */
+    @Setup
+    public void setUp() {
+        input = TaskGenerator.command(shape);
+    }
+
+    /**
+     * Parses one command line.
+     *
+     * @return Parsed command.
+     */
+    @Benchmark
+    public Parser.Command parse() {
+        return Parser.parse(input);
+    }
+}
@@ -0,0 +1,93 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tasks.Task;
+import tasks.TaskList;
+import tasks.TaskTree;
+
+/**
+ * Compares the array list and tree backings of a TaskList on the positional operations behind
+ * {@code mark}, {@code unmark} and {@code delete}, as run by a script that does not search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class PositionalBenchmark {
+
+    /**
+     * Lists a TaskList can be built on.
+     */
+    public enum Backing {
+        ARRAY_LIST, TREE
+    }
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"ARRAY_LIST", "TREE"})
+    public Backing backing;
+
+    private TaskList tasks;
+
+    /**
+     * Generates the list on the chosen backing.
+     */
+    @Setup
+    public void setUp() {
+        ArrayList<Task> generated = TaskGenerator.generateTasks(size, TaskGenerator.SEED);
+        List<Task> list = backing == Backing.TREE ? new TaskTree(generated) : generated;
+        tasks = new TaskList(list);
+    }
+
+    /**
+     * Deletes the first task and adds it back at the end, keeping the size of the list constant.
+     *
+     * @return The moved task.
+     */
+    @Benchmark
+    public Task deleteFirst() {
+        Task task = tasks.remove(0);
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Deletes the task in the middle and adds it back at the end.
+     *
+     * @return The moved task.
+     */
+    @Benchmark
+    public Task deleteMiddle() {
+        Task task = tasks.remove(size / 2);
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Gets the task in the middle, as marking it does.
+     *
+     * @return The task.
+     */
+    @Benchmark
+    public Task getMiddle() {
+        return tasks.get(size / 2);
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import command.CommandHandler;
+import tasks.Task;
+import tasks.TaskEdit;
+import tasks.TaskList;
+import tasks.TaskOrder;
+import tasks.TaskTree;
+
+/**
+ * Measures finding a page in the middle of the list sorted by due date, and the cost of keeping every sorted view
+ * in order while deleting a task and undoing it or changing the status of one. The list is kept in a
+ * {@link TaskTree} so that deleting from the middle does not shift the tasks after it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class SortedListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private TaskList tasks;
+    private boolean isDone;
+
+    /**
+     * Generates the list and builds every sorted view, which are otherwise built by the first sorted listing.
+     */
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(new TaskTree(TaskGenerator.generateTasks(size, TaskGenerator.SEED)));
+        for (TaskOrder order : TaskOrder.values()) {
+            tasks.sortedPositions(order, 0, 1);
+        }
+    }
+
+    /**
+     * Finds the positions of the tasks on the middle page of the list sorted by due date.
+     *
+     * @return Positions of the tasks on the page.
+     */
+    @Benchmark
+    public int[] middlePage() {
+        int from = size / 2;
+        return tasks.sortedPositions(TaskOrder.DUE, from, from + CommandHandler.LIST_PAGE_SIZE);
+    }
+
+    /**
+     * Deletes the task in the middle of the list and undoes the deletion, which puts it back under its old id.
+     *
+     * @return The edit putting the task back.
+     */
+    @Benchmark
+    public TaskEdit deleteUndo() {
+        int index = size / 2;
+        tasks.recordUndo(TaskEdit.insert(new int[]{index}, new Task[]{tasks.remove(index)}));
+        return tasks.undo();
+    }
+
+    /**
+     * Flips the status of the task in the middle of the list.
+     *
+     * @return Previous status of the task.
+     */
+    @Benchmark
+    public boolean toggleStatus() {
+        isDone = !isDone;
+        return tasks.setStatus(size / 2, isDone);
+    }
+}
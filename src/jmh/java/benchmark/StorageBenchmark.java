@@ -0,0 +1,108 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import exceptions.AmadeusException;
+import storage.Storage;
+import tasks.Task;
+
+/**
+ * Measures saving and loading whole task files in each snapshot format.
+ * Binary snapshots are mapped lazily, so loading them is measured both on its own and followed by
+ * reading every task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class StorageBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TEXT", "BINARY_STRING_TABLE"})
+    public Storage.SnapshotFormat format;
+
+    private File directory;
+    private ArrayList<Task> tasks;
+    private String loadPath;
+    private String savePath;
+
+    /**
+     * Generates the tasks and writes the file read by the load benchmarks.
+     *
+     * @throws IOException If the temporary directory cannot be created.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("amadeus-bench").toFile();
+        tasks = TaskGenerator.generateTasks(size, TaskGenerator.SEED);
+        loadPath = new File(directory, "load.txt").getPath();
+        savePath = new File(directory, "save.txt").getPath();
+        new Storage(loadPath, false, format).saveTasks(tasks);
+    }
+
+    /**
+     * Deletes the files written by the benchmarks.
+     */
+    @TearDown
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * Saves the whole list.
+     */
+    @Benchmark
+    public void save() {
+        new Storage(savePath, false, format).saveTasks(tasks);
+    }
+
+    /**
+     * Loads the whole list.
+     *
+     * @return Loaded tasks.
+     * @throws AmadeusException If the file cannot be loaded.
+     */
+    @Benchmark
+    public List<Task> load() throws AmadeusException {
+        return new Storage(loadPath).loadTasks();
+    }
+
+    /**
+     * Loads the whole list and reads every task.
+     *
+     * @param blackhole Sink for the tasks read.
+     * @throws AmadeusException If the file cannot be loaded.
+     */
+    @Benchmark
+    public void loadAndRead(Blackhole blackhole) throws AmadeusException {
+        for (Task task : new Storage(loadPath).loadTasks()) {
+            blackhole.consume(task.getDescription());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Random;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Task;
+import tasks.ToDo;
+
+/**
+ * Generates synthetic task lists for the benchmarks.
+ * The data is reproducible: the same size and seed always give the same tasks, so results can be compared
+ * between runs and against the recorded baseline.
+ */
+public final class TaskGenerator {
+
+    /** Seed used by the benchmarks */
+    public static final long SEED = 42;
+
+    /** Word that appears in the description of roughly one task in ten */
+    public static final String COMMON_WORD = "report";
+
+    /** Word that appears in no generated description */
+    public static final String MISSING_WORD = "xylophone";
+
+    private static final String[] VERBS = {
+        "read", "write", "review", "buy", "call", "fix", "plan", "clean", "return", "submit"
+    };
+
+    private static final String[] OBJECTS = {
+        "book", "report", "groceries", "mom", "bike", "trip", "room", "library book", "assignment", "slides",
+        "email", "car", "budget", "notes", "letter", "tickets", "lunch", "garden", "homework", "photos"
+    };
+
+    /** First date given to deadlines and events */
+    private static final LocalDate START_DATE = LocalDate.of(2025, 1, 1);
+
+    /** Number of days over which dates are spread */
+    private static final int DATE_SPAN_DAYS = 365;
+
+    private TaskGenerator() {
+    }
+
+    /**
+     * Returns a list of tasks made of 60% todos, 25% deadlines and 15% events, a third of them done.
+     *
+     * @param size Number of tasks to generate.
+     * @param seed Seed of the generator.
+     * @return Generated tasks.
+     */
+    public static ArrayList<Task> generateTasks(int size, long seed) {
+        Random random = new Random(seed);
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String description = VERBS[random.nextInt(VERBS.length)] + " "
+                    + OBJECTS[random.nextInt(OBJECTS.length)] + " " + random.nextInt(1000);
+            int kind = random.nextInt(100);
+            Task task;
+            if (kind < 60) {
+                task = new ToDo(description);
+            } else if (kind < 85) {
+                task = new Deadline(description, randomDate(random));
+            } else {
+                LocalDate from = randomDate(random);
+                task = new Event(description, from, from.plusDays(random.nextInt(7)));
+            }
+            if (random.nextInt(3) == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns a command line of the given shape, as a user would type it.
+     *
+     * @param shape Shape of the command.
+     * @return Command line.
+     */
+    public static String command(CommandShape shape) {
+        switch (shape) {
+        case LIST:
+            return "list";
+        case LIST_PAGE:
+            return "list page 3";
+        case LIST_RANGE:
+            return "list 100-200";
+        case TODO:
+            return "todo read book 42";
+        case DEADLINE:
+            return "deadline return book /by 2025-03-14";
+        case EVENT:
+            return "event project meeting /from 2025-03-14 /to 2025-03-16";
+        case MARK:
+            return "mark 12";
+        case UNMARK:
+            return "unmark 12";
+        case DELETE:
+            return "delete 12";
+        case FIND:
+            return "find " + COMMON_WORD;
+        case DUE:
+            return "due 2025-06-30";
+        case ON:
+            return "on 2025-06-30";
+        case BETWEEN:
+            return "between 2025-06-01 2025-06-30";
+        case HELP:
+            return "help";
+        case BYE:
+            return "bye";
+        default:
+            return "sing a song";
+        }
+    }
+
+    private static LocalDate randomDate(Random random) {
+        return START_DATE.plusDays(random.nextInt(DATE_SPAN_DAYS));
+    }
+
+    /**
+     * Shapes of the commands accepted by the parser, plus an invalid one.
+     */
+    public enum CommandShape {
+        LIST, LIST_PAGE, LIST_RANGE, TODO, DEADLINE, EVENT, MARK, UNMARK, DELETE, FIND, DUE, ON, BETWEEN, HELP,
+        BYE, INVALID
+    }
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tasks.Task;
+import tasks.TaskList;
+
+/**
+ * Measures keyword searches that match many tasks and searches that match none.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class TaskListBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private TaskList tasks;
+
+    /**
+     * Generates the list and builds its search index, which is otherwise built by the first search.
+     */
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(TaskGenerator.generateTasks(size, TaskGenerator.SEED));
+        tasks.findTasks(TaskGenerator.COMMON_WORD);
+    }
+
+    /**
+     * Searches for a word found in about one task in ten.
+     *
+     * @return Matching tasks.
+     */
+    @Benchmark
+    public ArrayList<Task> findHit() {
+        return tasks.findTasks(TaskGenerator.COMMON_WORD);
+    }
+
+    /**
+     * Searches for a word found in no task.
+     *
+     * @return Matching tasks.
+     */
+    @Benchmark
+    public ArrayList<Task> findMiss() {
+        return tasks.findTasks(TaskGenerator.MISSING_WORD);
+    }
+}
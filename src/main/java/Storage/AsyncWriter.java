@@ -0,0 +1,182 @@
+package storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import tasks.Task;
+
+/**
+ * Background writer that persists changes for a {@link Storage} in asynchronous mode.
+ * Callers only queue their changes; a single thread waits up to a bounded delay after the first
+ * pending change and then writes everything queued so far in one go.
+ */
+class AsyncWriter {
+
+    /** Storage performing the actual I/O */
+    private final Storage storage;
+
+    /** Maximum delay between the first pending change and its write, in nanoseconds */
+    private final long maxDelayNanos;
+
+    /** Thread performing the writes */
+    private final Thread thread;
+
+    /** Copy of the full task list to write as a new snapshot, or null if none is pending */
+    private List<Task> pendingSnapshot;
+
+    /** Journal records queued after the pending snapshot, if any */
+    private ArrayList<String> pendingRecords = new ArrayList<>();
+
+    /** Time at which the oldest pending change was queued */
+    private long firstPendingAt;
+
+    /** Estimated journal size once all queued records are written, used to schedule compaction */
+    private long queuedJournalSize;
+
+    /** Number of changes queued so far */
+    private long queuedVersion;
+
+    /** Number of changes written so far */
+    private long writtenVersion;
+
+    /** Number of writes performed */
+    private long writeCount;
+
+    /** Whether a caller is waiting for pending changes to be written */
+    private boolean isFlushRequested;
+
+    /** Whether the writer should stop once pending changes are written */
+    private boolean isClosed;
+
+    /**
+     * Constructs and starts a writer for the given storage.
+     *
+     * @param storage Storage performing the I/O.
+     * @param maxDelayMillis Maximum time a change may wait before it is written.
+     */
+    AsyncWriter(Storage storage, long maxDelayMillis) {
+        assert maxDelayMillis >= 0 : "Write delay should not be negative";
+        this.storage = storage;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.queuedJournalSize = Math.max(storage.getJournalSize(), 0);
+        this.thread = new Thread(this::run, "amadeus-storage-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a change for the next write.
+     * Without journal records, or once the journal would pass its compaction threshold,
+     * a copy of the task list is queued as a new snapshot instead, replacing the records queued before it.
+     *
+     * @param tasks Current list of tasks after the change.
+     * @param records Journal records describing the change, or null to queue a full snapshot.
+     */
+    synchronized void submit(List<Task> tasks, List<String> records) {
+        if (pendingSnapshot == null && pendingRecords.isEmpty()) {
+            firstPendingAt = System.nanoTime();
+        }
+
+        long size = records == null ? 0 : Storage.recordsSize(records);
+        if (records == null || queuedJournalSize + size >= storage.getCompactionThreshold()) {
+            pendingSnapshot = new ArrayList<>(tasks);
+            pendingRecords.clear();
+            queuedJournalSize = 0;
+        } else {
+            pendingRecords.addAll(records);
+            queuedJournalSize += size;
+        }
+        queuedVersion++;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until every change queued before this call has been written.
+     */
+    synchronized void flush() {
+        long target = queuedVersion;
+        isFlushRequested = true;
+        notifyAll();
+        try {
+            while (writtenVersion < target && thread.isAlive()) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes all pending changes and stops the writer thread.
+     */
+    void close() {
+        synchronized (this) {
+            isClosed = true;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of writes performed so far.
+     *
+     * @return Number of writes.
+     */
+    synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    private void run() {
+        while (true) {
+            List<Task> snapshot;
+            List<String> records;
+            long version;
+
+            synchronized (this) {
+                try {
+                    while (queuedVersion == writtenVersion && !isClosed) {
+                        wait();
+                    }
+                    if (queuedVersion == writtenVersion) {
+                        return;
+                    }
+                    long remaining = firstPendingAt + maxDelayNanos - System.nanoTime();
+                    while (remaining > 0 && !isFlushRequested && !isClosed) {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        remaining = firstPendingAt + maxDelayNanos - System.nanoTime();
+                    }
+                } catch (InterruptedException e) {
+                    // Keep writing; pending changes must not be lost
+                }
+                if (queuedVersion == writtenVersion) {
+                    continue;
+                }
+
+                snapshot = pendingSnapshot;
+                records = pendingRecords;
+                version = queuedVersion;
+                pendingSnapshot = null;
+                pendingRecords = new ArrayList<>();
+                isFlushRequested = false;
+            }
+
+            if (snapshot != null) {
+                storage.saveTasks(snapshot);
+            }
+            if (!records.isEmpty()) {
+                storage.appendToJournal(records);
+            }
+
+            synchronized (this) {
+                writtenVersion = version;
+                writeCount++;
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import exceptions.AmadeusException;
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Task;
+import tasks.ToDo;
+
+/**
+ * Reads and writes the versioned binary snapshot format.
+ *
+ * <p>The file starts with a fixed header (magic, version, task count and a random stamp identifying this
+ * snapshot), followed by one fixed-width record per task (type, done flag and up to two epoch-day dates),
+ * an offset table with one entry per string plus an end marker, and finally the UTF-8 string bytes.
+ * Since every section is addressable by index, a task can be decoded without touching the others.
+ *
+ * <p>In version 1 there is one string per task, in task order. Version 2 stores each distinct description
+ * once: the header also holds the number of strings and every record refers to its description by index.
+ */
+final class BinaryTaskFile {
+
+    /** Magic number identifying a binary snapshot ("AMDB") */
+    static final int MAGIC = 0x414D4442;
+
+    /** Version storing one description per task */
+    static final int VERSION_PLAIN = 1;
+
+    /** Version storing a table of distinct descriptions referenced from the records */
+    static final int VERSION_STRING_TABLE = 2;
+
+    /** Size of the version 1 header in bytes: magic, version, count and stamp */
+    static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+
+    /** Size of a version 1 task record in bytes: type, done flag, padding and two dates */
+    static final int RECORD_SIZE = 1 + 1 + 2 + 4 + 4;
+
+    /** Date value stored when a task has no date, or an unparseable one */
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    static final byte TYPE_TODO = 0;
+    static final byte TYPE_DEADLINE = 1;
+    static final byte TYPE_EVENT = 2;
+
+    private BinaryTaskFile() {
+    }
+
+    /**
+     * Returns whether the given file starts with the binary snapshot magic number.
+     *
+     * @param file File to inspect.
+     * @return True if the file is a binary snapshot.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean isBinary(File file) throws IOException {
+        if (file.length() < HEADER_SIZE) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Writes the given tasks to a binary snapshot.
+     *
+     * @param file File to write to.
+     * @param tasks Tasks to write, in list order.
+     * @param hasStringTable True to store each distinct description once (version 2).
+     * @return Random stamp identifying the written snapshot.
+     * @throws IOException If the file cannot be written.
+     */
+    static long write(File file, List<Task> tasks, boolean hasStringTable) throws IOException {
+        long stamp = ThreadLocalRandom.current().nextLong();
+        int count = tasks.size();
+        ArrayList<Integer> offsets = new ArrayList<>();
+        HashMap<String, Integer> stringRefs = new HashMap<>();
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        ByteArrayOutputStream records = new ByteArrayOutputStream(count * (RECORD_SIZE + 4));
+        DataOutputStream recordOut = new DataOutputStream(records);
+
+        for (int i = 0; i < count; i++) {
+            Task task = tasks.get(i);
+            String description = task.getDescription();
+            Integer ref = hasStringTable ? stringRefs.get(description) : null;
+            if (ref == null) {
+                ref = offsets.size();
+                offsets.add(strings.size());
+                strings.writeBytes(description.getBytes(StandardCharsets.UTF_8));
+                if (hasStringTable) {
+                    stringRefs.put(description, ref);
+                }
+            }
+            writeRecord(recordOut, task);
+            if (hasStringTable) {
+                recordOut.writeInt(ref);
+            }
+        }
+        offsets.add(strings.size());
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(hasStringTable ? VERSION_STRING_TABLE : VERSION_PLAIN);
+            out.writeInt(count);
+            out.writeLong(stamp);
+            if (hasStringTable) {
+                out.writeInt(offsets.size() - 1);
+            }
+            records.writeTo(out);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            strings.writeTo(out);
+        }
+        return stamp;
+    }
+
+    private static void writeRecord(DataOutputStream out, Task task) throws IOException {
+        byte type;
+        int first = NO_DATE;
+        int second = NO_DATE;
+        if (task instanceof Deadline) {
+            type = TYPE_DEADLINE;
+            first = toEpochDay(((Deadline) task).getByRaw());
+        } else if (task instanceof Event) {
+            type = TYPE_EVENT;
+            first = toEpochDay(((Event) task).getFromRaw());
+            second = toEpochDay(((Event) task).getToRaw());
+        } else {
+            type = TYPE_TODO;
+        }
+        out.writeByte(type);
+        out.writeByte(task.isDone() ? 1 : 0);
+        out.writeShort(0);
+        out.writeInt(first);
+        out.writeInt(second);
+    }
+
+    private static int toEpochDay(String raw) {
+        return raw.isEmpty() ? NO_DATE : (int) LocalDate.parse(raw).toEpochDay();
+    }
+
+    /**
+     * Maps a binary snapshot into memory without decoding any task.
+     *
+     * @param file Binary snapshot to map.
+     * @return Lazily materialized list of the tasks in the snapshot.
+     * @throws IOException If the file cannot be mapped.
+     * @throws AmadeusException If the file is not a supported binary snapshot.
+     */
+    static MappedTaskList map(File file) throws IOException, AmadeusException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new AmadeusException("Not a binary task file: " + file);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION_PLAIN && version != VERSION_STRING_TABLE) {
+            throw new AmadeusException("Unsupported binary task file version: " + version);
+        }
+        return new MappedTaskList(new Layout(buffer), buffer.getLong(12));
+    }
+
+    /**
+     * Positions of the sections of a mapped snapshot.
+     */
+    static class Layout {
+        final ByteBuffer buffer;
+        final int count;
+        final int stringCount;
+        final boolean hasStringTable;
+        private final int recordSize;
+        private final int recordsStart;
+        private final int offsetsStart;
+        private final int stringsStart;
+
+        Layout(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.count = buffer.getInt(8);
+            this.hasStringTable = buffer.getInt(4) == VERSION_STRING_TABLE;
+            this.stringCount = hasStringTable ? buffer.getInt(HEADER_SIZE) : count;
+            this.recordSize = hasStringTable ? RECORD_SIZE + 4 : RECORD_SIZE;
+            this.recordsStart = hasStringTable ? HEADER_SIZE + 4 : HEADER_SIZE;
+            this.offsetsStart = recordsStart + count * recordSize;
+            this.stringsStart = offsetsStart + (stringCount + 1) * 4;
+        }
+
+        /**
+         * Returns the index of the string holding the description of a task.
+         *
+         * @param index Index of the task.
+         * @return Index of its description in the string section.
+         */
+        int stringRef(int index) {
+            return hasStringTable ? buffer.getInt(recordsStart + index * recordSize + RECORD_SIZE) : index;
+        }
+
+        /**
+         * Decodes a string of the string section.
+         *
+         * @param ref Index of the string.
+         * @return Decoded string.
+         */
+        String string(int ref) {
+            int start = buffer.getInt(offsetsStart + ref * 4);
+            int end = buffer.getInt(offsetsStart + (ref + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringsStart + start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Decodes the task at the given index.
+         *
+         * @param index Index of the task.
+         * @param description Description of the task, already decoded.
+         * @return Decoded task.
+         */
+        Task task(int index, String description) {
+            int record = recordsStart + index * recordSize;
+            Task task;
+            switch (buffer.get(record)) {
+            case TYPE_DEADLINE:
+                task = new Deadline(description, toDate(buffer.getInt(record + 4)));
+                break;
+            case TYPE_EVENT:
+                task = new Event(description, toDate(buffer.getInt(record + 4)), toDate(buffer.getInt(record + 8)));
+                break;
+            default:
+                task = new ToDo(description);
+                break;
+            }
+            if (buffer.get(record + 1) != 0) {
+                task.markAsDone();
+            }
+            return task;
+        }
+    }
+
+    private static LocalDate toDate(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
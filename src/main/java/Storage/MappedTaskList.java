@@ -0,0 +1,140 @@
+package storage;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import tasks.DescriptionPool;
+import tasks.Task;
+
+/**
+ * A list of tasks backed by a memory-mapped binary snapshot.
+ * Tasks are decoded the first time they are accessed and cached afterwards, so that changes made
+ * to them (such as marking as done) are kept. The first structural change (add or remove) decodes
+ * the remaining tasks and switches to an ordinary in-memory list.
+ * Descriptions shared through the snapshot's string table are decoded once and shared by all their tasks.
+ *
+ * <p>Several threads may read the list at once, as they do under the read lock of a task list, and decode
+ * tasks concurrently: the caches are published atomically and the first task decoded for a position is the one
+ * every reader gets. Structural changes must not overlap with reads.
+ */
+class MappedTaskList extends AbstractList<Task> implements RandomAccess {
+
+    /** Sections of the mapped snapshot */
+    private final BinaryTaskFile.Layout layout;
+
+    /** Number of tasks in the snapshot */
+    private final int count;
+
+    /** Stamp identifying the snapshot this list was read from */
+    private final long stamp;
+
+    /** Tasks decoded so far, indexed by position in the snapshot */
+    private AtomicReferenceArray<Task> decoded;
+
+    /** Descriptions decoded so far, indexed by position in the string table, or null without a string table */
+    private AtomicReferenceArray<String> strings;
+
+    /** Fully materialized tasks after the first structural change, or null before that */
+    private ArrayList<Task> materialized;
+
+    /**
+     * Constructs a list over a mapped snapshot.
+     *
+     * @param layout Sections of the mapped snapshot.
+     * @param stamp Stamp identifying the snapshot.
+     */
+    MappedTaskList(BinaryTaskFile.Layout layout, long stamp) {
+        this.layout = layout;
+        this.count = layout.count;
+        this.stamp = stamp;
+        this.decoded = new AtomicReferenceArray<>(count);
+        this.strings = layout.hasStringTable ? new AtomicReferenceArray<>(layout.stringCount) : null;
+    }
+
+    /**
+     * Returns the stamp of the snapshot this list was read from.
+     *
+     * @return Snapshot stamp.
+     */
+    long getStamp() {
+        return stamp;
+    }
+
+    /**
+     * Returns whether the snapshot this list was read from stores each distinct description once.
+     *
+     * @return True for a snapshot with a string table.
+     */
+    boolean hasStringTable() {
+        return layout.hasStringTable;
+    }
+
+    @Override
+    public Task get(int index) {
+        if (materialized != null) {
+            return materialized.get(index);
+        }
+        Task task = decoded.get(index);
+        if (task == null) {
+            task = layout.task(index, description(layout.stringRef(index)));
+            Task winner = decoded.compareAndExchange(index, null, task);
+            if (winner != null) {
+                task = winner;
+            }
+        }
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return materialized != null ? materialized.size() : count;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        return materialize().set(index, task);
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        materialize().add(index, task);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = materialize().remove(index);
+        modCount++;
+        return removed;
+    }
+
+    private ArrayList<Task> materialize() {
+        if (materialized == null) {
+            ArrayList<Task> tasks = new ArrayList<>(count + 1);
+            for (int i = 0; i < count; i++) {
+                tasks.add(get(i));
+            }
+            materialized = tasks;
+            decoded = null;
+            strings = null;
+        }
+        return materialized;
+    }
+
+    private String description(int ref) {
+        if (strings == null) {
+            return DescriptionPool.intern(layout.string(ref));
+        }
+        String description = strings.get(ref);
+        if (description == null) {
+            description = DescriptionPool.intern(layout.string(ref));
+            String winner = strings.compareAndExchange(ref, null, description);
+            if (winner != null) {
+                description = winner;
+            }
+        }
+        return description;
+    }
+}
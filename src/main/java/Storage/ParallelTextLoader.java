@@ -0,0 +1,195 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import tasks.Task;
+
+/**
+ * Loads large files in the text format by decoding newline-aligned chunks on the fork-join pool.
+ * Chunks are joined back in file order, so tasks keep the same positions as with a sequential load.
+ */
+final class ParallelTextLoader {
+
+    /** Default file size in bytes from which loading is done in parallel */
+    static final long PARALLEL_THRESHOLD = 16L * 1024 * 1024;
+
+    /** Default target size of each chunk in bytes */
+    static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /** Number of bytes scanned at a time when aligning a chunk boundary to the next newline */
+    private static final int SCAN_SIZE = 8 * 1024;
+
+    private ParallelTextLoader() {
+    }
+
+    /**
+     * Tasks and checksum produced by a load.
+     */
+    static class Result {
+        /** Tasks in file order */
+        final ArrayList<Task> tasks;
+
+        /** Checksum of the lines read, as computed by {@link Storage#addLineChecksum} */
+        final long checksum;
+
+        /** Number of lines read, including corrupted ones */
+        final long lineCount;
+
+        Result(ArrayList<Task> tasks, long checksum, long lineCount) {
+            this.tasks = tasks;
+            this.checksum = checksum;
+            this.lineCount = lineCount;
+        }
+    }
+
+    /**
+     * Loads all tasks from the given file in parallel, skipping corrupted lines.
+     *
+     * @param file File in the text format.
+     * @param chunkSize Target size of each chunk in bytes, normally {@link #CHUNK_SIZE}.
+     * @return Tasks in file order and the checksum of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    static Result load(File file, int chunkSize) throws IOException {
+        assert chunkSize > 0 : "Chunk size should be positive";
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            long[] bounds = findChunkBounds(channel, chunkSize);
+            try {
+                return ForkJoinPool.commonPool().invoke(new ChunkDecoder(channel, bounds, 0, bounds.length - 1));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Splits the file into chunks of roughly the given size that each start at the beginning of a line.
+     *
+     * @param channel Channel over the file.
+     * @param chunkSize Target size of each chunk in bytes.
+     * @return Offsets of the chunk boundaries, starting with 0 and ending with the file size.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long[] findChunkBounds(FileChannel channel, int chunkSize) throws IOException {
+        long size = channel.size();
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+        long position = chunkSize;
+        while (position < size) {
+            long lineStart = -1;
+            while (lineStart < 0 && position < size) {
+                scan.clear();
+                int read = channel.read(scan, position);
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') {
+                        lineStart = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max(read, 0);
+            }
+            if (lineStart < 0 || lineStart >= size) {
+                break;
+            }
+            bounds.add(lineStart);
+            position = lineStart + chunkSize;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a range of chunks, splitting it in halves until a single chunk remains.
+     * Fork-join tasks are serializable, but these only ever run within the process that creates them.
+     */
+    @SuppressWarnings("serial")
+    private static class ChunkDecoder extends RecursiveTask<Result> {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+
+        ChunkDecoder(FileChannel channel, long[] bounds, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from == 1) {
+                return decodeChunk();
+            }
+
+            int mid = (from + to) >>> 1;
+            ChunkDecoder left = new ChunkDecoder(channel, bounds, from, mid);
+            ChunkDecoder right = new ChunkDecoder(channel, bounds, mid, to);
+            left.fork();
+            Result second = right.compute();
+            Result first = left.join();
+
+            ArrayList<Task> tasks = new ArrayList<>(first.tasks.size() + second.tasks.size());
+            tasks.addAll(first.tasks);
+            tasks.addAll(second.tasks);
+            long checksum = Storage.combineChecksums(first.checksum, second.checksum, second.lineCount);
+            return new Result(tasks, checksum, first.lineCount + second.lineCount);
+        }
+
+        private Result decodeChunk() {
+            long start = bounds[from];
+            int length = (int) (bounds[to] - start);
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            byte[] bytes = buffer.array();
+            int end = buffer.position();
+            Charset charset = Charset.defaultCharset();
+            ArrayList<Task> tasks = new ArrayList<>();
+            long checksum = 0;
+            long lineCount = 0;
+
+            int lineStart = 0;
+            while (lineStart < end) {
+                int lineEnd = lineStart;
+                while (lineEnd < end && bytes[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+                String line = new String(bytes, lineStart, contentEnd - lineStart, charset);
+
+                checksum = Storage.addLineChecksum(checksum, line);
+                lineCount++;
+                Task task = Storage.parseTask(line);
+                if (task != null) {
+                    tasks.add(task);
+                }
+                lineStart = lineEnd + 1;
+            }
+            return new Result(tasks, checksum, lineCount);
+        }
+    }
+}
@@ -6,114 +6,785 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
 
 import exceptions.AmadeusException;
+import metrics.Metrics;
 import tasks.Deadline;
+import tasks.DescriptionPool;
 import tasks.Event;
 import tasks.Task;
+import tasks.TaskEdit;
 import tasks.ToDo;
+import ui.Ui;
 
 /**
  * Handles saving and loading tasks from the local file system.
+ * In journaled mode, mutations are appended to a small change log next to the snapshot
+ * instead of rewriting the whole file, and the log is compacted once it grows too large.
  */
 public class Storage {
 
+    /** On-disk formats of the task snapshot */
+    public enum SnapshotFormat {
+        /** Pipe-delimited text, one task per line */
+        TEXT,
+        /** Versioned binary records read through a memory-mapped buffer */
+        BINARY,
+        /** Binary records referring to a table that stores each distinct description once */
+        BINARY_STRING_TABLE
+    }
+
+    /** Journal size in bytes after which the journal is folded into a new snapshot */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+
+    /** Suffix appended to the snapshot path to obtain the journal path */
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    /** Multiplier used to fold per-line CRCs into a text snapshot checksum */
+    private static final long CHECKSUM_MULTIPLIER = 0x100000001B3L;
+
+    /** Prefix of the journal header line holding the checksum of the snapshot it applies to */
+    private static final String JOURNAL_HEADER = "# ";
+
     /** File path where tasks are saved and loaded from */
     private final String filePath;
 
+    /** Whether mutations are appended to the journal instead of rewriting the snapshot */
+    private final boolean isJournaled;
+
+    /** Journal size in bytes that triggers compaction */
+    private final long compactionThreshold;
+
+    /** Format used when writing the snapshot, switched to the format of a binary snapshot found on load */
+    private SnapshotFormat format;
+
+    /** Checksum of a text snapshot or stamp of a binary one, used to tie the journal to the snapshot on disk */
+    private long snapshotTag;
+
+    /** Current size of the journal in bytes, or -1 if no journal exists yet */
+    private long journalSize = -1;
+
+    /** Background writer in asynchronous mode, or null when writes are synchronous */
+    private volatile AsyncWriter asyncWriter;
+
+    /** Hook flushing pending changes when the JVM exits, registered while writes are asynchronous */
+    private Thread shutdownHook;
+
+    /** File size in bytes from which text files are loaded in parallel chunks */
+    private long parallelLoadThreshold = ParallelTextLoader.PARALLEL_THRESHOLD;
+
+    /** Target size in bytes of the chunks of a parallel load */
+    private int parallelChunkSize = ParallelTextLoader.CHUNK_SIZE;
+
+    /** Whether changes are held back until the next checkpoint, as while running a script */
+    private boolean isDeferred;
+
+    /** Number of changes recorded since writes were deferred or last checkpointed */
+    private int deferredChanges;
+
     /**
      * Constructs a Storage object with the specified file path.
      *
      * @param filePath Path to the file for storing tasks.
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructs a Storage object with the specified file path and persistence mode.
+     *
+     * @param filePath Path to the file for storing tasks.
+     * @param isJournaled True to append mutations to a journal instead of rewriting the file.
+     */
+    public Storage(String filePath, boolean isJournaled) {
+        this(filePath, isJournaled, SnapshotFormat.TEXT);
+    }
+
+    /**
+     * Constructs a Storage object with the specified file path, persistence mode and snapshot format.
+     *
+     * @param filePath Path to the file for storing tasks.
+     * @param isJournaled True to append mutations to a journal instead of rewriting the file.
+     * @param format Format used when writing the snapshot, unless a binary snapshot is loaded from the file.
+     */
+    public Storage(String filePath, boolean isJournaled, SnapshotFormat format) {
+        this(filePath, isJournaled, format, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructs a Storage object with all persistence options.
+     *
+     * @param filePath Path to the file for storing tasks.
+     * @param isJournaled True to append mutations to a journal instead of rewriting the file.
+     * @param format Format used when writing the snapshot, unless a binary snapshot is loaded from the file.
+     * @param compactionThreshold Journal size in bytes after which it is compacted into the snapshot.
+     */
+    public Storage(String filePath, boolean isJournaled, SnapshotFormat format, long compactionThreshold) {
+        assert compactionThreshold > 0 : "Compaction threshold should be positive";
         this.filePath = filePath;
+        this.isJournaled = isJournaled;
+        this.format = format;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Returns whether this storage appends mutations to a journal.
+     *
+     * @return True if journaled mode is enabled.
+     */
+    public boolean isJournaled() {
+        return isJournaled;
     }
 
     /**
      * Saves the given list of tasks to the file.
+     * In journaled mode this also discards the journal, since the snapshot now contains its changes.
      *
      * @param tasks List of tasks to be saved.
      */
-    public void saveTasks(ArrayList<Task> tasks) {
-        File dir = new File(filePath).getParentFile();
-        if (!dir.exists()) {
-            dir.mkdirs();
+    public void saveTasks(List<Task> tasks) {
+        File file = new File(filePath);
+        ensureParentDirectory();
+
+        // A binary snapshot may still be mapped by the list being saved, so it is never overwritten in place
+        boolean isBinary = format != SnapshotFormat.TEXT;
+        boolean isReplaced = isJournaled || isBinary;
+        File target = isReplaced ? new File(filePath + ".tmp") : file;
+        long start = Metrics.startTimer();
+        try {
+            snapshotTag = isBinary
+                    ? BinaryTaskFile.write(target, tasks, format == SnapshotFormat.BINARY_STRING_TABLE)
+                    : writeText(target, tasks);
+        } catch (IOException e) {
+            showSaveError(e);
+            return;
+        }
+        Metrics.recordStorage(Metrics.StorageOperation.SNAPSHOT_WRITE, target.length(), Metrics.elapsedSince(start));
+
+        if (isReplaced) {
+            // Replace the snapshot first; a journal left behind by a crash no longer matches its tag
+            try {
+                Files.move(target.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                showSaveError(e);
+                return;
+            }
+        }
+        if (isJournaled) {
+            new File(journalPath()).delete();
+            journalSize = -1;
         }
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+    /**
+     * Writes the tasks in the pipe-delimited text format.
+     *
+     * @param target File to write to.
+     * @param tasks Tasks to write.
+     * @return Checksum of the written lines.
+     * @throws IOException If the file cannot be written.
+     */
+    private static long writeText(File target, List<Task> tasks) throws IOException {
+        long checksum = 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(target))) {
             for (Task task : tasks) {
-                String line = "";
-                if (task instanceof ToDo) {
-                    line = String.format("T | %d | %s", task.isDone() ? 1 : 0, task.getDescription());
-                } else if (task instanceof Deadline) {
-                    Deadline d = (Deadline) task;
-                    line = String.format("D | %d | %s | %s",
-                            d.isDone() ? 1 : 0, d.getDescription(), d.getByRaw());
-                } else if (task instanceof Event) {
-                    Event e = (Event) task;
-                    line = String.format("E | %d | %s | %s | %s",
-                            e.isDone() ? 1 : 0, e.getDescription(), e.getFromRaw(), e.getToRaw());
-                }
+                String line = formatTask(task);
                 writer.write(line);
                 writer.newLine();
+                checksum = addLineChecksum(checksum, line);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Persists the addition of a task at the end of the list.
+     *
+     * @param tasks Current list of tasks, already containing the new task.
+     * @param task Task that was added.
+     */
+    public void recordAdd(List<Task> tasks, Task task) {
+        recordChanges(tasks, List.of("A | " + formatTask(task)));
+    }
+
+    /**
+     * Persists the deletion of the task at the given index.
+     *
+     * @param tasks Current list of tasks, with the task already removed.
+     * @param index Zero-based index the task was removed from.
+     */
+    public void recordDelete(List<Task> tasks, int index) {
+        recordChanges(tasks, List.of("X | " + index));
+    }
+
+    /**
+     * Persists the deletion of several tasks as one change.
+     *
+     * @param tasks Current list of tasks, with the tasks already removed.
+     * @param indexes Zero-based indexes the tasks were removed from, in increasing order.
+     */
+    public void recordDeletes(List<Task> tasks, int[] indexes) {
+        // Replayed one at a time, so later tasks are removed first to keep the earlier indexes valid
+        ArrayList<String> records = new ArrayList<>(indexes.length);
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            records.add("X | " + indexes[i]);
+        }
+        recordChanges(tasks, records);
+    }
+
+    /**
+     * Persists a change to the completion status of the task at the given index.
+     *
+     * @param tasks Current list of tasks, with the status already updated.
+     * @param index Zero-based index of the updated task.
+     * @param done True if the task was marked as done, false if unmarked.
+     */
+    public void recordStatus(List<Task> tasks, int index, boolean done) {
+        recordChanges(tasks, List.of((done ? "M | " : "U | ") + index));
+    }
+
+    /**
+     * Persists a change to the completion status of several tasks as one change.
+     *
+     * @param tasks Current list of tasks, with the statuses already updated.
+     * @param indexes Zero-based indexes of the updated tasks.
+     * @param done True if the tasks were marked as done, false if unmarked.
+     */
+    public void recordStatuses(List<Task> tasks, int[] indexes, boolean done) {
+        String prefix = done ? "M | " : "U | ";
+        ArrayList<String> records = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            records.add(prefix + index);
+        }
+        recordChanges(tasks, records);
+    }
+
+    /**
+     * Persists an edit applied to the list, such as one undoing or redoing a command, as one change.
+     *
+     * @param tasks Current list of tasks, with the edit already applied.
+     * @param edit Edit that was applied.
+     */
+    public void recordEdit(List<Task> tasks, TaskEdit edit) {
+        int[] indexes = edit.getIndexes();
+        if (edit.getKind() == TaskEdit.Kind.REMOVE) {
+            recordDeletes(tasks, indexes);
+            return;
+        }
+
+        ArrayList<String> records = new ArrayList<>(indexes.length);
+        if (edit.getKind() == TaskEdit.Kind.INSERT) {
+            // Replayed one at a time, so earlier tasks are inserted first to keep the later indexes valid
+            Task[] inserted = edit.getTasks();
+            for (int i = 0; i < indexes.length; i++) {
+                records.add("I | " + indexes[i] + " | " + formatTask(inserted[i]));
+            }
+        } else {
+            boolean[] statuses = edit.getStatuses();
+            for (int i = 0; i < indexes.length; i++) {
+                records.add((statuses[i] ? "M | " : "U | ") + indexes[i]);
+            }
+        }
+        recordChanges(tasks, records);
+    }
+
+    /**
+     * Appends records to the journal in one write, or rewrites the snapshot when not journaled.
+     * Compacts the journal into a new snapshot once it passes the threshold, and writes the snapshot
+     * straight away if the records alone would pass it.
+     * In asynchronous mode the change is only queued for the background writer, and while writes are deferred
+     * it is only counted.
+     *
+     * @param tasks Current list of tasks after the change.
+     * @param records Journal records describing the change, in the order they are to be replayed.
+     */
+    private void recordChanges(List<Task> tasks, List<String> records) {
+        if (isDeferred) {
+            deferredChanges++;
+            return;
+        }
+        if (asyncWriter != null) {
+            asyncWriter.submit(tasks, isJournaled ? records : null);
+            return;
+        }
+
+        if (!isJournaled || Math.max(journalSize, 0) + recordsSize(records) >= compactionThreshold) {
+            saveTasks(tasks);
+            return;
+        }
+
+        appendToJournal(records);
+        if (journalSize >= compactionThreshold) {
+            saveTasks(tasks);
+        }
+    }
+
+    /**
+     * Returns the number of bytes the given records take in the journal.
+     *
+     * @param records Journal records.
+     * @return Size in bytes, including line separators.
+     */
+    static long recordsSize(List<String> records) {
+        long size = 0;
+        for (String record : records) {
+            size += record.length() + System.lineSeparator().length();
+        }
+        return size;
+    }
+
+    /**
+     * Appends records to the journal in a single write, creating the journal if needed.
+     *
+     * @param records Journal records to append, in order.
+     */
+    void appendToJournal(List<String> records) {
+        if (journalSize < 0) {
+            startJournal();
+        }
+
+        long start = Metrics.startTimer();
+        long size = 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(journalPath(), true))) {
+            for (String record : records) {
+                writer.write(record);
+                writer.newLine();
+                size += record.length() + System.lineSeparator().length();
+            }
+        } catch (IOException e) {
+            showSaveError(e);
+            return;
+        }
+        journalSize += size;
+        Metrics.recordStorage(Metrics.StorageOperation.JOURNAL_WRITE, size, Metrics.elapsedSince(start));
+    }
+
+    /**
+     * Returns the current size of the journal, or -1 if there is none.
+     *
+     * @return Journal size in bytes.
+     */
+    long getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Returns the journal size after which the journal is compacted.
+     *
+     * @return Compaction threshold in bytes.
+     */
+    long getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Stops persisting individual changes until {@link #resumeWrites} is called.
+     * Changes are then only written by {@link #checkpoint} as part of a full snapshot, which makes
+     * long runs of commands much cheaper at the cost of losing the changes since the last checkpoint on a crash.
+     */
+    public void deferWrites() {
+        flush();
+        isDeferred = true;
+    }
+
+    /**
+     * Saves a snapshot of the given tasks if any change was recorded since writes were deferred
+     * or last checkpointed.
+     *
+     * @param tasks Current list of tasks.
+     * @return True if a snapshot was written.
+     */
+    public boolean checkpoint(List<Task> tasks) {
+        if (deferredChanges == 0) {
+            return false;
+        }
+        saveTasks(tasks);
+        deferredChanges = 0;
+        return true;
+    }
+
+    /**
+     * Writes a final checkpoint and goes back to persisting every change.
+     *
+     * @param tasks Current list of tasks.
+     */
+    public void resumeWrites(List<Task> tasks) {
+        checkpoint(tasks);
+        isDeferred = false;
+    }
+
+    /**
+     * Switches this storage to asynchronous persistence.
+     * Changes are then queued and written by a single background thread, which coalesces all changes
+     * made within {@code maxDelayMillis} of the first pending one into one write.
+     * Pending changes are also flushed when the JVM shuts down.
+     *
+     * @param maxDelayMillis Maximum time a change may wait before it is written.
+     */
+    public void startAsyncWrites(long maxDelayMillis) {
+        if (asyncWriter != null) {
+            return;
+        }
+        asyncWriter = new AsyncWriter(this, maxDelayMillis);
+        shutdownHook = new Thread(this::flush);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Blocks until every change recorded so far has been written to disk.
+     * Does nothing in synchronous mode, where changes are written before the record call returns.
+     */
+    public void flush() {
+        if (asyncWriter != null) {
+            asyncWriter.flush();
+        }
+    }
+
+    /**
+     * Flushes pending changes and stops the background writer, returning to synchronous persistence.
+     * The shutdown hook is removed as well, so that a closed storage is not kept alive until the JVM exits.
+     */
+    public void close() {
+        if (asyncWriter != null) {
+            asyncWriter.close();
+            asyncWriter = null;
+        }
+        if (shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down and runs the hook, which finds nothing left to flush
             }
+            shutdownHook = null;
+        }
+    }
+
+    /**
+     * Changes when text files are loaded in parallel and how they are split, so that small files can
+     * exercise the parallel loader.
+     *
+     * @param threshold File size in bytes from which text files are loaded in parallel.
+     * @param chunkSize Target size in bytes of each chunk.
+     */
+    void setParallelLoad(long threshold, int chunkSize) {
+        parallelLoadThreshold = threshold;
+        parallelChunkSize = chunkSize;
+    }
+
+    /**
+     * Returns the checksum or stamp of the snapshot last loaded or written, which journals are tied to.
+     *
+     * @return Snapshot tag.
+     */
+    long getSnapshotTag() {
+        return snapshotTag;
+    }
+
+    /**
+     * Returns the number of writes performed by the background writer.
+     *
+     * @return Number of coalesced writes, or 0 in synchronous mode.
+     */
+    public long getAsyncWriteCount() {
+        return asyncWriter != null ? asyncWriter.getWriteCount() : 0;
+    }
+
+    /**
+     * Creates an empty journal bound to the current snapshot.
+     */
+    private void startJournal() {
+        ensureParentDirectory();
+        String header = JOURNAL_HEADER + snapshotTag;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(journalPath()))) {
+            writer.write(header);
+            writer.newLine();
         } catch (IOException e) {
-            System.out.println("Error saving tasks: " + e.getMessage());
+            showSaveError(e);
+            return;
         }
+        journalSize = header.length() + System.lineSeparator().length();
+    }
+
+    /**
+     * Reports a failed write through the console of the Ui, so that it comes after the replies already printed.
+     */
+    private static void showSaveError(IOException e) {
+        Ui.showConsoleError("Error saving tasks: " + e.getMessage());
     }
 
     /**
      * Loads tasks from the file.
+     * Binary snapshots are mapped and decoded lazily, while text files are parsed line by line,
+     * regardless of the configured format. A binary snapshot keeps its format when it is next written, so that
+     * a converted file does not turn back into text; a text file is written in the configured format.
+     * In journaled mode, the journal is replayed on top of the snapshot.
      *
      * @return List of tasks loaded from the file.
      * @throws AmadeusException If an I/O error occurs during loading.
      */
-    public ArrayList<Task> loadTasks() throws AmadeusException {
-        ArrayList<Task> tasks = new ArrayList<>();
+    public List<Task> loadTasks() throws AmadeusException {
         File file = new File(filePath);
+        List<Task> tasks;
+        long start = Metrics.startTimer();
 
-        if (!file.exists()) {
-            return tasks;
+        try {
+            if (file.exists() && BinaryTaskFile.isBinary(file)) {
+                MappedTaskList mapped = BinaryTaskFile.map(file);
+                snapshotTag = mapped.getStamp();
+                format = mapped.hasStringTable() ? SnapshotFormat.BINARY_STRING_TABLE : SnapshotFormat.BINARY;
+                tasks = mapped;
+            } else {
+                tasks = readText(file);
+            }
+        } catch (IOException e) {
+            throw new AmadeusException("Error loading tasks from file: " + e.getMessage());
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
+        if (isJournaled) {
+            replayJournal(tasks);
+        }
+        long bytes = file.length() + (isJournaled ? new File(journalPath()).length() : 0);
+        Metrics.recordStorage(Metrics.StorageOperation.LOAD, bytes, Metrics.elapsedSince(start));
+        return tasks;
+    }
 
+    /**
+     * Reads tasks in the pipe-delimited text format, skipping corrupted lines.
+     * Files of at least {@link ParallelTextLoader#PARALLEL_THRESHOLD} bytes, unless changed by
+     * {@link #setParallelLoad}, are decoded in parallel chunks.
+     *
+     * @param file File to read, which may not exist.
+     * @return Tasks read from the file.
+     * @throws IOException If the file cannot be read.
+     */
+    private ArrayList<Task> readText(File file) throws IOException {
+        if (file.exists() && file.length() >= parallelLoadThreshold) {
+            ParallelTextLoader.Result result = ParallelTextLoader.load(file, parallelChunkSize);
+            snapshotTag = result.checksum;
+            return result.tasks;
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        long checksum = 0;
+
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    checksum = addLineChecksum(checksum, line);
+                    Task task = parseTask(line);
+                    if (task != null) {
+                        tasks.add(task);
+                    }
+                }
+            }
+        }
+        snapshotTag = checksum;
+        return tasks;
+    }
+
+    /**
+     * Converts a task file in the text format into a binary snapshot.
+     *
+     * @param textPath Path of the existing text file.
+     * @param binaryPath Path of the binary snapshot to write.
+     * @throws AmadeusException If the text file cannot be read.
+     */
+    public static void convertToBinary(String textPath, String binaryPath) throws AmadeusException {
+        List<Task> tasks = new Storage(textPath).loadTasks();
+        new Storage(binaryPath, false, SnapshotFormat.BINARY).saveTasks(tasks);
+    }
+
+    /**
+     * Rewrites a journaled task file as a binary snapshot in place, folding its journal into it.
+     * Later snapshots of the file stay binary.
+     *
+     * @param filePath Path of the task file.
+     * @return Number of tasks converted.
+     * @throws AmadeusException If the file cannot be read.
+     */
+    public static int convertInPlace(String filePath) throws AmadeusException {
+        Storage storage = new Storage(filePath, true, SnapshotFormat.BINARY);
+        List<Task> tasks = storage.loadTasks();
+        storage.saveTasks(tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Applies the journal records to the tasks loaded from the snapshot.
+     * A journal whose header does not match the snapshot is left over from a compaction and is ignored.
+     *
+     * @param tasks Tasks loaded from the snapshot.
+     * @throws AmadeusException If an I/O error occurs while reading the journal.
+     */
+    private void replayJournal(List<Task> tasks) throws AmadeusException {
+        File journal = new File(journalPath());
+        journalSize = -1;
+        if (!journal.exists()) {
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(journal))) {
+            String header = reader.readLine();
+            if (header == null || !header.equals(JOURNAL_HEADER + snapshotTag)) {
+                return;
+            }
+
+            String line;
             while ((line = reader.readLine()) != null) {
                 try {
-                    String[] parts = line.split(" \\| ");
-                    String type = parts[0];
-                    boolean isDone = "1".equals(parts[1]);
-
-                    if ("T".equals(type)) {
-                        ToDo t = new ToDo(parts[2]);
-                        if (isDone) {
-                            t.markAsDone();
-                        }
-                        tasks.add(t);
-                    } else if ("D".equals(type)) {
-                        Deadline d = new Deadline(parts[2], parts[3]);
-                        if (isDone) {
-                            d.markAsDone();
-                        }
-                        tasks.add(d);
-                    } else if ("E".equals(type)) {
-                        Event e = new Event(parts[2], parts[3], parts[4]);
-                        if (isDone) {
-                            e.markAsDone();
-                        }
-                        tasks.add(e);
-                    }
+                    applyRecord(tasks, line);
                 } catch (Exception ex) {
-                    // Skip corrupted line
+                    // Skip corrupted record
                 }
             }
         } catch (IOException e) {
-            throw new AmadeusException("Error loading tasks from file: " + e.getMessage());
+            throw new AmadeusException("Error loading tasks from journal: " + e.getMessage());
         }
+        journalSize = journal.length();
+    }
 
-        return tasks;
+    private void applyRecord(List<Task> tasks, String record) {
+        String payload = record.substring(4);
+        switch (record.charAt(0)) {
+        case 'A':
+            Task task = parseTask(payload);
+            if (task != null) {
+                tasks.add(task);
+            }
+            break;
+        case 'I':
+            int separator = payload.indexOf(" | ");
+            Task inserted = parseTask(payload.substring(separator + 3));
+            if (inserted != null) {
+                tasks.add(Integer.parseInt(payload, 0, separator, 10), inserted);
+            }
+            break;
+        case 'X':
+            tasks.remove(Integer.parseInt(payload));
+            break;
+        case 'M':
+            tasks.get(Integer.parseInt(payload)).markAsDone();
+            break;
+        case 'U':
+            tasks.get(Integer.parseInt(payload)).markAsUndone();
+            break;
+        default:
+            // Unknown record type
+            break;
+        }
+    }
+
+    private void ensureParentDirectory() {
+        File dir = new File(filePath).getAbsoluteFile().getParentFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+    }
+
+    private String journalPath() {
+        return filePath + JOURNAL_SUFFIX;
+    }
+
+    /**
+     * Folds the CRC of one more line into a text snapshot checksum.
+     * Checksums of consecutive runs of lines can be joined with {@link #combineChecksums}.
+     *
+     * @param checksum Checksum of the preceding lines.
+     * @param line Next line of the file.
+     * @return Checksum including the line.
+     */
+    static long addLineChecksum(long checksum, String line) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            crc.update(c >>> 8);
+            crc.update(c);
+        }
+        return checksum * CHECKSUM_MULTIPLIER + crc.getValue();
+    }
+
+    /**
+     * Joins the checksums of two consecutive runs of lines.
+     *
+     * @param first Checksum of the first run.
+     * @param second Checksum of the second run, computed starting from zero.
+     * @param secondLines Number of lines in the second run.
+     * @return Checksum of both runs together.
+     */
+    static long combineChecksums(long first, long second, long secondLines) {
+        long factor = 1;
+        long base = CHECKSUM_MULTIPLIER;
+        for (long n = secondLines; n > 0; n >>= 1) {
+            if ((n & 1) != 0) {
+                factor *= base;
+            }
+            base *= base;
+        }
+        return first * factor + second;
+    }
+
+    /**
+     * Formats a task as a single line of the text file format.
+     *
+     * @param task Task to format.
+     * @return Line representing the task.
+     */
+    static String formatTask(Task task) {
+        String line = "";
+        if (task instanceof ToDo) {
+            line = String.format("T | %d | %s", task.isDone() ? 1 : 0, task.getDescription());
+        } else if (task instanceof Deadline) {
+            Deadline d = (Deadline) task;
+            line = String.format("D | %d | %s | %s",
+                    d.isDone() ? 1 : 0, d.getDescription(), d.getByRaw());
+        } else if (task instanceof Event) {
+            Event e = (Event) task;
+            line = String.format("E | %d | %s | %s | %s",
+                    e.isDone() ? 1 : 0, e.getDescription(), e.getFromRaw(), e.getToRaw());
+        }
+        return line;
+    }
+
+    /**
+     * Parses a single line of the text file format into a task.
+     * The description is shared through {@link DescriptionPool}, since many lines tend to repeat it.
+     *
+     * @param line Line to parse.
+     * @return Parsed task, or null if the line is corrupted.
+     */
+    static Task parseTask(String line) {
+        try {
+            String[] parts = line.split(" \\| ");
+            String type = parts[0];
+            boolean isDone = "1".equals(parts[1]);
+
+            String description = DescriptionPool.intern(parts[2]);
+
+            Task task;
+            if ("T".equals(type)) {
+                task = new ToDo(description);
+            } else if ("D".equals(type)) {
+                task = new Deadline(description, parts[3]);
+            } else if ("E".equals(type)) {
+                task = new Event(description, parts[3], parts[4]);
+            } else {
+                return null;
+            }
+            if (isDone) {
+                task.markAsDone();
+            }
+            return task;
+        } catch (Exception ex) {
+            // Skip corrupted line
+            return null;
+        }
     }
 }
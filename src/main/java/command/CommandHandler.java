@@ -2,18 +2,39 @@ package command;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
+import exceptions.AmadeusException;
+import metrics.Metrics;
 import parser.Parser;
+import parser.TaskQuery;
+import parser.TaskSelection;
 import storage.Storage;
 import tasks.Task;
+import tasks.TaskEdit;
 import tasks.TaskList;
+import tasks.TaskMatch;
+import tasks.TaskOrder;
 import ui.Ui;
 
 /**
  * Handles commands from the user and performs operations on the task list.
- * Supports adding, deleting, marking/unmarking, and listing tasks.
+ * Supports adding, deleting, marking/unmarking, and listing tasks, and undoing and redoing those changes.
  */
 public class CommandHandler {
+    /** Number of tasks shown by {@code list page <n>} */
+    public static final int LIST_PAGE_SIZE = 50;
+
+    /** Number of tasks shown by {@code find~ <query>} */
+    public static final int FUZZY_RESULT_LIMIT = 10;
+
+    /** Number of days after today covered by {@code upcoming} without a number */
+    public static final int DEFAULT_UPCOMING_DAYS = 7;
+
     /** Task list to be managed by this command handler */
     private final TaskList tasks;
 
@@ -23,6 +44,12 @@ public class CommandHandler {
     /** User interface for displaying messages */
     private final Ui ui;
 
+    /** Time spent handing changes to storage during the current command, in nanoseconds */
+    private long persistNanos;
+
+    /** Time spent writing to the UI during the current command, in nanoseconds */
+    private long renderNanos;
+
     /**
      * Constructs a CommandHandler with the given task list, storage, and UI.
      *
@@ -38,13 +65,27 @@ public class CommandHandler {
 
     /**
      * Handles the given command by performing the corresponding action.
+     * The time taken is recorded in {@link Metrics}, split into executing, persisting and rendering.
      *
      * @param command Command to be executed.
      */
     public void handleCommand(Parser.Command command) {
+        if (!Metrics.IS_ENABLED) {
+            execute(command);
+            return;
+        }
+        persistNanos = 0;
+        renderNanos = 0;
+        long start = System.nanoTime();
+        execute(command);
+        long total = System.nanoTime() - start;
+        Metrics.recordCommand(command.type, total - persistNanos - renderNanos, persistNanos, renderNanos);
+    }
+
+    private void execute(Parser.Command command) {
         switch (command.type) {
         case LIST:
-            printTaskList();
+            listTasks(command);
             break;
         case MARK:
             markTask(command, true);
@@ -71,15 +112,35 @@ public class CommandHandler {
         case FIND:
             handleFindCommand(command);
             break;
+        case FUZZY_FIND:
+            showRankedTasks(tasks.findFuzzy(command.args[0], FUZZY_RESULT_LIMIT));
+            break;
+        case DUE:
+        case ON:
+        case BETWEEN:
+            handleDateQuery(command);
+            break;
+        case UPCOMING:
+            showUpcoming(command);
+            break;
         case BYE:
-            ui.printMessage("Bye. Hope to see you again soon!");
+            show("Bye. Hope to see you again soon!");
             break;
         case INVALID:
-            ui.printMessage("Sorry, I didn't understand that command. Please try again!");
+            showError("Sorry, I didn't understand that command. Please try again!");
             break;
         case HELP:
             showHelp();
             break;
+        case STATS:
+            show(Metrics.report());
+            break;
+        case UNDO:
+            undoChange(false);
+            break;
+        case REDO:
+            undoChange(true);
+            break;
         default:
             // do nothing
             break;
@@ -87,54 +148,205 @@ public class CommandHandler {
     }
 
     /**
-     * Prints all tasks in the task list to the UI.
+     * Prints the tasks selected by a list command to the UI: all of them, one page with
+     * {@code list page <n>}, or a range with {@code list <a>-<b>}. Tasks keep their numbers in the full list.
+     * With an order such as {@code list sort:due page <n>}, the page or range is taken from the list in that order.
+     *
+     * @param command Command containing the optional order and selection.
      */
-    private void printTaskList() {
-        StringBuilder output = new StringBuilder("Here are the tasks in your list:\n");
-        for (int i = 0; i < tasks.size(); i++) {
-            Task task = tasks.get(i);
-            output.append(i + 1).append(". ").append(task).append("\n");
+    private void listTasks(Parser.Command command) {
+        String[] args = command.args;
+        TaskOrder order = null;
+        String sortedBy = "";
+        if (args.length > 0 && args[0].startsWith(Parser.SORT_PREFIX)) {
+            order = parseOrder(args[0].substring(Parser.SORT_PREFIX.length()));
+            if (order == null) {
+                showError("Please sort by due, type or done.");
+                return;
+            }
+            sortedBy = ", sorted by " + describeOrder(order);
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+
+        int size = tasks.size();
+        if (args.length == 0) {
+            printTasks("Here are the tasks in your list" + sortedBy + ":", 0, size, order);
+            return;
+        }
+
+        boolean isPage = args[0].equals(Parser.PAGE_KEYWORD);
+        int from;
+        int to;
+        try {
+            if (isPage) {
+                from = (Integer.parseInt(args[1]) - 1) * LIST_PAGE_SIZE;
+                to = from + LIST_PAGE_SIZE;
+            } else {
+                from = Integer.parseInt(args[0]) - 1;
+                to = Integer.parseInt(args[1]);
+            }
+        } catch (NumberFormatException e) {
+            showError(isPage ? "Please enter a valid page number." : "Please enter a valid range of task numbers.");
+            return;
+        }
+
+        if (from < 0 || from >= size || to <= from) {
+            showError(isPage ? "Sorry, that page does not exist." : "Sorry, that range of tasks does not exist.");
+            return;
+        }
+        to = Math.min(to, size);
+        printTasks(String.format("Here are tasks %d-%d of %d in your list%s:", from + 1, to, size, sortedBy),
+                from, to, order);
+    }
+
+    private static TaskOrder parseOrder(String key) {
+        switch (key) {
+        case "due":
+            return TaskOrder.DUE;
+        case "type":
+            return TaskOrder.TYPE;
+        case "done":
+            return TaskOrder.DONE;
+        default:
+            return null;
+        }
+    }
+
+    private static String describeOrder(TaskOrder order) {
+        switch (order) {
+        case DUE:
+            return "due date";
+        case TYPE:
+            return "type";
+        default:
+            return "status";
         }
-        ui.printMessage(output.toString());
+    }
+
+    /**
+     * Streams a header and the numbered tasks in the given range to the UI.
+     * Without an order, the range is of positions in the list; with one, it is of ranks in that order,
+     * looked up in the sorted view of the list.
+     *
+     * @param header First line of the output.
+     * @param from Index or rank of the first task to print.
+     * @param to Index or rank after the last task to print.
+     * @param order Order of the tasks, or null for list order.
+     */
+    private void printTasks(String header, int from, int to, TaskOrder order) {
+        long start = Metrics.startTimer();
+        int[] positions = order == null ? null : tasks.sortedPositions(order, from, to);
+        ui.printLines(new Iterator<String>() {
+            private int next = from - 1;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index = next++;
+                if (index < from) {
+                    return header;
+                }
+                int position = positions == null ? index : positions[index - from];
+                return (position + 1) + ". " + tasks.get(position);
+            }
+        });
+        renderNanos += Metrics.elapsedSince(start);
     }
 
     /**
      * Marks or unmarks a task as done based on the specified flag.
+     * A selection of several tasks, such as {@code 1-500} or {@code all done}, is handled by {@link #markTasks}.
      *
      * @param command Command containing the task index.
      * @param done True to mark as done, false to mark as not done.
      */
     private void markTask(Parser.Command command, boolean done) {
+        if (TaskSelection.isBulk(command.args[0])) {
+            markTasks(command, done);
+            return;
+        }
+
         int index;
         try {
             index = Integer.parseInt(command.args[0]) - 1;
         } catch (NumberFormatException e) {
-            ui.printMessage("Please enter a valid task number.");
+            showError("Please enter a valid task number.");
             return;
         }
 
         if (!isValidTaskIndex(index)) {
-            ui.printMessage("Sorry, that task number does not exist.");
+            showError("Sorry, that task number does not exist.");
             return;
         }
 
         updateTaskStatus(index, done);
     }
 
+    /**
+     * Marks or unmarks every selected task, persisting the change once and summarizing the result.
+     * The whole selection is checked before any task is changed.
+     *
+     * @param command Command containing the selection.
+     * @param done True to mark as done, false to mark as not done.
+     */
+    private void markTasks(Parser.Command command, boolean done) {
+        int[] indexes = resolveSelection(command.args[0]);
+        if (indexes == null) {
+            return;
+        }
+
+        boolean[] previous = new boolean[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            previous[i] = tasks.setStatus(indexes[i], done);
+        }
+        if (indexes.length > 0) {
+            tasks.recordUndo(TaskEdit.setStatus(indexes, previous));
+            long start = Metrics.startTimer();
+            storage.recordStatuses(tasks.getTasks(), indexes, done);
+            persistNanos += Metrics.elapsedSince(start);
+        }
+        show(done
+            ? String.format("Nice! I've marked %d %s as done.", indexes.length, pluralTasks(indexes.length))
+            : String.format("OK, I've marked %d %s as not done yet.", indexes.length, pluralTasks(indexes.length)));
+    }
+
+    /**
+     * Parses a selection of tasks and checks it against the list, showing an error if it is invalid.
+     *
+     * @param spec Argument of the command.
+     * @return Indexes of the selected tasks in increasing order, or null if the selection is invalid.
+     */
+    private int[] resolveSelection(String spec) {
+        try {
+            return TaskSelection.parse(spec).resolve(tasks.getTasks());
+        } catch (AmadeusException e) {
+            showError(e.getMessage());
+            return null;
+        }
+    }
+
+    private static String pluralTasks(int count) {
+        return count == 1 ? "task" : "tasks";
+    }
+
     private boolean isValidTaskIndex(int index) {
         return index >= 0 && index < tasks.size();
     }
 
     private void updateTaskStatus(int index, boolean done) {
-        Task task = tasks.get(index);
-        if (done) {
-            task.markAsDone();
-            ui.printMessage(formatTaskMessage(task, true));
-        } else {
-            task.markAsUndone();
-            ui.printMessage(formatTaskMessage(task, false));
-        }
-        storage.saveTasks(tasks.getTasks());
+        boolean wasDone = tasks.setStatus(index, done);
+        tasks.recordUndo(TaskEdit.setStatus(new int[]{index}, new boolean[]{wasDone}));
+        show(formatTaskMessage(tasks.get(index), done));
+        long start = Metrics.startTimer();
+        storage.recordStatus(tasks.getTasks(), index, done);
+        persistNanos += Metrics.elapsedSince(start);
     }
 
     private String formatTaskMessage(Task task, boolean done) {
@@ -151,7 +363,7 @@ public class CommandHandler {
         try {
             LocalDate.parse(by); 
         } catch (DateTimeParseException e) {
-            ui.printMessage("Invalid date format for deadline. Please use YYYY-MM-DD.");
+            showError("Invalid date format for deadline. Please use YYYY-MM-DD.");
             return false;
         }
         return true;
@@ -170,19 +382,19 @@ public class CommandHandler {
         try {
             fromDate = LocalDate.parse(from);
         } catch (DateTimeParseException e) {
-            ui.printMessage("Invalid start date for event. Expected yyyy-MM-dd.");
+            showError("Invalid start date for event. Expected yyyy-MM-dd.");
             return false;
         }
 
         try {
             toDate = LocalDate.parse(to);
         } catch (DateTimeParseException e) {
-            ui.printMessage("Invalid end date for event. Expected yyyy-MM-dd.");
+            showError("Invalid end date for event. Expected yyyy-MM-dd.");
             return false;
         }
 
         if (toDate.isBefore(fromDate)) {
-            ui.printMessage("End date cannot be before start date for an event.");
+            showError("End date cannot be before start date for an event.");
             return false;
         }
         return true;
@@ -198,63 +410,244 @@ public class CommandHandler {
         Task newTask = Parser.createTask(command);
         if (newTask != null) {
             tasks.add(newTask);
-            storage.saveTasks(tasks.getTasks());
-            ui.printMessage(String.format(
+            tasks.recordUndo(TaskEdit.remove(new int[]{tasks.size() - 1}));
+            long start = Metrics.startTimer();
+            storage.recordAdd(tasks.getTasks(), newTask);
+            persistNanos += Metrics.elapsedSince(start);
+            show(String.format(
                 "Got it. I've added this task:\n  %s\nNow you have %d tasks in the list.",
                 newTask, tasks.size()));
         } else {
-            ui.printMessage("Invalid task format.");
+            showError("Invalid task format.");
         }
     }
 
     /**
      * Deletes a task from the task list based on the command.
+     * A selection of several tasks, such as {@code 3,7,12-20}, is handled by {@link #deleteTasks}.
      *
      * @param command Command containing the task index.
      */
     private void deleteTask(Parser.Command command) {
+        if (TaskSelection.isBulk(command.args[0])) {
+            deleteTasks(command);
+            return;
+        }
+
         try {
             int index = Integer.parseInt(command.args[0]) - 1;
             if (index >= 0 && index < tasks.size()) {
                 Task removed = tasks.remove(index);
-                storage.saveTasks(tasks.getTasks());
-                ui.printMessage(String.format(
+                tasks.recordUndo(TaskEdit.insert(new int[]{index}, new Task[]{removed}));
+                long start = Metrics.startTimer();
+                storage.recordDelete(tasks.getTasks(), index);
+                persistNanos += Metrics.elapsedSince(start);
+                show(String.format(
                     "Noted. I've removed this task:\n  %s\nNow you have %d tasks in the list.",
                     removed, tasks.size()));
             } else {
-                ui.printMessage("Sorry, that task number does not exist.");
+                showError("Sorry, that task number does not exist.");
             }
         } catch (Exception e) {
-            ui.printMessage("Please enter a valid task number to delete.");
+            showError("Please enter a valid task number to delete.");
+        }
+    }
+
+    /**
+     * Deletes every selected task in one pass, persisting the change once and summarizing the result.
+     * The whole selection is checked before any task is removed.
+     *
+     * @param command Command containing the selection.
+     */
+    private void deleteTasks(Parser.Command command) {
+        int[] indexes = resolveSelection(command.args[0]);
+        if (indexes == null) {
+            return;
         }
+
+        Task[] removed = new Task[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            removed[i] = tasks.get(indexes[i]);
+        }
+        tasks.removeAll(indexes);
+        if (indexes.length > 0) {
+            tasks.recordUndo(TaskEdit.insert(indexes, removed));
+            long start = Metrics.startTimer();
+            storage.recordDeletes(tasks.getTasks(), indexes);
+            persistNanos += Metrics.elapsedSince(start);
+        }
+        show(String.format("Noted. I've removed %d %s.\nNow you have %d tasks in the list.",
+            indexes.length, pluralTasks(indexes.length), tasks.size()));
     }
 
+    /**
+     * Undoes the latest change made by a command, or redoes the latest change undone, and persists it
+     * the same way as the command that made it.
+     *
+     * @param isRedo True to redo, false to undo.
+     */
+    private void undoChange(boolean isRedo) {
+        TaskEdit edit = isRedo ? tasks.redo() : tasks.undo();
+        if (edit == null) {
+            showError(isRedo ? "There is nothing to redo." : "There is nothing to undo.");
+            return;
+        }
+
+        long start = Metrics.startTimer();
+        storage.recordEdit(tasks.getTasks(), edit);
+        persistNanos += Metrics.elapsedSince(start);
+        show(String.format("%s %s\nNow you have %d tasks in the list.",
+            isRedo ? "Redone!" : "Undone!", describeEdit(edit), tasks.size()));
+    }
+
+    private static String describeEdit(TaskEdit edit) {
+        int count = edit.size();
+        switch (edit.getKind()) {
+        case INSERT:
+            return String.format("I've put back %d %s.", count, pluralTasks(count));
+        case REMOVE:
+            return String.format("I've removed %d %s.", count, pluralTasks(count));
+        default:
+            return String.format("I've changed the status of %d %s.", count, pluralTasks(count));
+        }
+    }
+
+    /**
+     * Shows the tasks containing a keyword, or the tasks matching a query such as {@code "book" and not done}
+     * when the argument is one, as decided by {@link TaskQuery#isQuery}. A keyword that looks like a query but
+     * cannot be parsed as one, such as {@code milk (2L)}, is searched for as a keyword instead; the reason it is
+     * not a query is only shown if no task contains it.
+     *
+     * @param command Command containing the keyword or query.
+     */
     private void handleFindCommand(Parser.Command command) {
         if (command.args.length == 0) {
-            ui.printMessage("OOPS!!! The find command requires a keyword.");
+            showError("OOPS!!! The find command requires a keyword.");
             return;
         }
 
         String keyword = String.join(" ", command.args);
-        ui.showMatchingTasks(tasks.findTasks(keyword));
+        if (!TaskQuery.isQuery(keyword)) {
+            showTasks(tasks.findTasks(keyword));
+            return;
+        }
+
+        TaskQuery query;
+        try {
+            query = TaskQuery.parse(keyword);
+        } catch (AmadeusException e) {
+            ArrayList<Task> matching = tasks.findTasks(keyword);
+            if (matching.isEmpty()) {
+                showError("No matching tasks found.\n" + e.getMessage());
+            } else {
+                showTasks(matching);
+            }
+            return;
+        }
+        showTasks(tasks.filter(query.getPredicate()));
+    }
+
+    /**
+     * Shows deadlines and events matching a date query: {@code due <date>} lists deadlines due on or
+     * before the date, {@code on <date>} lists tasks falling on it and {@code between <d1> <d2>} lists
+     * tasks falling within the range.
+     *
+     * @param command Command containing the date arguments.
+     */
+    private void handleDateQuery(Parser.Command command) {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(command.args[0]);
+            to = command.type == Parser.CommandType.BETWEEN ? LocalDate.parse(command.args[1]) : from;
+        } catch (DateTimeParseException e) {
+            showError("Invalid date format. Please use YYYY-MM-DD.");
+            return;
+        }
+
+        if (command.type == Parser.CommandType.DUE) {
+            showTasks(tasks.findDueBy(from));
+        } else if (to.isBefore(from)) {
+            showError("End date cannot be before start date.");
+        } else {
+            showTasks(tasks.findBetween(from, to));
+        }
+    }
+
+    /**
+     * Shows the deadlines and events that are not done and fall due from today until the given number of days
+     * after it, earliest first: {@code upcoming <n> days}, or the next week with {@code upcoming}.
+     *
+     * @param command Command containing the optional number of days.
+     */
+    private void showUpcoming(Parser.Command command) {
+        int days = DEFAULT_UPCOMING_DAYS;
+        if (command.args.length > 0) {
+            try {
+                days = Integer.parseInt(command.args[0]);
+            } catch (NumberFormatException e) {
+                days = -1;
+            }
+        }
+        if (days < 0) {
+            showError("Please enter a valid number of days.");
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        showTasks(tasks.findUpcoming(today, today.plusDays(days)));
+    }
+
+    private void show(String message) {
+        long start = Metrics.startTimer();
+        ui.printMessage(message);
+        renderNanos += Metrics.elapsedSince(start);
+    }
+
+    private void showError(String message) {
+        long start = Metrics.startTimer();
+        ui.showError(message);
+        renderNanos += Metrics.elapsedSince(start);
+    }
+
+    private void showTasks(ArrayList<Task> matching) {
+        long start = Metrics.startTimer();
+        ui.showMatchingTasks(matching);
+        renderNanos += Metrics.elapsedSince(start);
+    }
+
+    private void showRankedTasks(List<TaskMatch> matches) {
+        long start = Metrics.startTimer();
+        ui.showRankedTasks(matches);
+        renderNanos += Metrics.elapsedSince(start);
     }
 
     private void showHelp() {
         StringBuilder sb = new StringBuilder();
         sb.append("Amadeus Help:\n");
         sb.append("Available commands:\n");
-        sb.append("1. list               - Show all tasks\n");
-        sb.append("2. mark <num>         - Mark a task as done\n");
-        sb.append("3. unmark <num>       - Mark a task as not done\n");
+        sb.append("1. list [sort:due|type|done] [page <n>|<a>-<b>] - Show all tasks, a page or a range\n");
+        sb.append("2. mark <nums>        - Mark tasks as done\n");
+        sb.append("3. unmark <nums>      - Mark tasks as not done\n");
         sb.append("4. todo <desc>        - Add a ToDo task\n");
         sb.append("5. deadline <desc> /by <date> - Add a Deadline task\n");
         sb.append("6. event <desc> /from <start> /to <end> - Add an Event task\n");
-        sb.append("7. delete <num>       - Delete a task\n");
-        sb.append("8. find <keyword>     - Search tasks\n");
-        sb.append("9. bye                - Exit\n");
-        sb.append("10. help              - Show this help message\n");
+        sb.append("7. delete <nums>      - Delete tasks\n");
+        sb.append("8. find <keyword>     - Search tasks, or filter them with a query such as\n");
+        sb.append("                        \"book\" and not done and type:deadline and by<2025-09-01\n");
+        sb.append("9. due <date>         - Show deadlines due by a date\n");
+        sb.append("10. on <date>         - Show deadlines and events on a date\n");
+        sb.append("11. between <d1> <d2> - Show deadlines and events within a range\n");
+        sb.append("12. bye               - Exit\n");
+        sb.append("13. help              - Show this help message\n");
+        sb.append("14. stats             - Show command and storage statistics\n");
+        sb.append("15. undo              - Undo the last change\n");
+        sb.append("16. redo              - Redo the last undone change\n");
+        sb.append("17. find~ <words>     - Show the tasks closest to the words, allowing typos\n");
+        sb.append("18. upcoming [<n> days] - Show unfinished tasks due within n days (default 7)\n");
+        sb.append("<nums> is a task number, a list such as 3,7,12-20, or all, all done or all undone\n");
 
-        ui.printMessage(sb.toString());
+        show(sb.toString());
     }
 
 }
@@ -0,0 +1,28 @@
+package gui;
+
+/**
+ * Represents one message of the conversation shown in the main window.
+ */
+public class ChatMessage {
+    private final String text;
+    private final boolean isFromUser;
+
+    /**
+     * Constructs a message.
+     *
+     * @param text Text of the message.
+     * @param isFromUser Whether the user sent the message, as opposed to Amadeus.
+     */
+    public ChatMessage(String text, boolean isFromUser) {
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isFromUser() {
+        return isFromUser;
+    }
+}
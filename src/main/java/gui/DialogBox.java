@@ -18,6 +18,7 @@ import javafx.scene.layout.HBox;
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * A box can be reused for another message, which is how the cells of the conversation list recycle it.
  */
 public class DialogBox extends HBox {
     @FXML
@@ -25,7 +26,10 @@ public class DialogBox extends HBox {
     @FXML
     private ImageView displayPicture;
 
-    private DialogBox(String text, Image img) {
+    /**
+     * Creates an empty dialog box from the FXML template.
+     */
+    public DialogBox() {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
             fxmlLoader.setController(this);
@@ -34,31 +38,47 @@ public class DialogBox extends HBox {
         } catch (IOException e) {
             e.printStackTrace();
         }
+    }
 
+    /**
+     * Shows a message in this box, with the picture on the user's side for the user's messages and on
+     * the left for Amadeus's.
+     *
+     * @param text Text of the message.
+     * @param img Picture of the speaker.
+     * @param isFromUser Whether the user sent the message.
+     */
+    public void setMessage(String text, Image img, boolean isFromUser) {
         assert text != null : "Dialog text should not be null";
         assert img != null : "Dialog image should not be null";
-        
+
         dialog.setText(text);
         displayPicture.setImage(img);
+        boolean isFlipped = getChildren().get(0) == displayPicture;
+        if (isFromUser == isFlipped) {
+            flip();
+        }
+        setAlignment(isFromUser ? Pos.TOP_RIGHT : Pos.TOP_LEFT);
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Swaps the ImageView and the label.
      */
     private void flip() {
         ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
         Collections.reverse(tmp);
         getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
+        DialogBox db = new DialogBox();
+        db.setMessage(text, img, true);
+        return db;
     }
 
     public static DialogBox getAmadeusDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
+        DialogBox db = new DialogBox();
+        db.setMessage(text, img, false);
         return db;
     }
-}
\ No newline at end of file
+}
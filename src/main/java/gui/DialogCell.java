@@ -0,0 +1,46 @@
+package gui;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * A cell of the conversation list, showing a message in a dialog box.
+ * The list only creates as many cells as fit on screen and reuses them while scrolling,
+ * so each cell loads the dialog box template once.
+ */
+public class DialogCell extends ListCell<ChatMessage> {
+
+    /** Horizontal space taken by the list's borders and scroll bar */
+    private static final double LIST_INSETS = 20.0;
+
+    private final DialogBox box = new DialogBox();
+    private final Image userImage;
+    private final Image amadeusImage;
+
+    /**
+     * Constructs a cell for the given list.
+     *
+     * @param list List the cell belongs to.
+     * @param userImage Picture shown next to the user's messages.
+     * @param amadeusImage Picture shown next to Amadeus's messages.
+     */
+    public DialogCell(ListView<ChatMessage> list, Image userImage, Image amadeusImage) {
+        this.userImage = userImage;
+        this.amadeusImage = amadeusImage;
+        // Fit the box to the list so that long messages wrap instead of scrolling sideways
+        box.prefWidthProperty().bind(list.widthProperty().subtract(LIST_INSETS));
+        setPrefWidth(0);
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        box.setMessage(message.getText(), message.isFromUser() ? userImage : amadeusImage, message.isFromUser());
+        setGraphic(box);
+    }
+}
@@ -16,6 +16,8 @@ public class Main extends Application {
 
     private Amadeus amadeus = new Amadeus();
 
+    private MainWindow mainWindow;
+
     @Override
     public void start(Stage stage) {
         try {
@@ -27,13 +29,22 @@ public class Main extends Application {
             stage.setMinHeight(220);    // Set minimum height
             stage.setMinWidth(417);     // Set minimum width
             
-            fxmlLoader.<MainWindow>getController().setAmadeus(amadeus);  // inject the Amadeus instance
+            mainWindow = fxmlLoader.<MainWindow>getController();
+            mainWindow.setAmadeus(amadeus);  // inject the Amadeus instance
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
     
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.shutdown();
+        }
+        amadeus.shutdown();
+    }
+
     /**
      * Main entry point for the JavaFX application.
      * 
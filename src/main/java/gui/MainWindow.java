@@ -1,12 +1,19 @@
 package gui;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import main.Amadeus;  // Import Amadeus from main package
 
 /**
@@ -14,16 +21,29 @@ import main.Amadeus;  // Import Amadeus from main package
  */
 public class MainWindow extends AnchorPane {
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
 
     private Amadeus amadeus;
 
+    /** Messages of the conversation, shown by recycled cells of the dialog list */
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+
+    /** Runs commands off the JavaFX thread, one at a time and in the order they were entered */
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "amadeus-command");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Number of commands entered whose response has not been shown yet; only used on the JavaFX thread */
+    private int pendingCount;
+
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image amadeusImage = new Image(this.getClass().getResourceAsStream("/images/DaAmadeus.png"));
 
@@ -32,33 +52,27 @@ public class MainWindow extends AnchorPane {
         assert userImage != null : "User image should be loaded";
         assert amadeusImage != null : "Amadeus image should be loaded";
         
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-        
-        // Initialize Amadeus and show greeting
-        amadeus = new Amadeus();
-        String greeting = amadeus.getGreeting();
-        dialogContainer.getChildren().add(
-            DialogBox.getAmadeusDialog(greeting, amadeusImage)
-        );
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(list -> new DialogCell(list, userImage, amadeusImage));
+        // Amadeus is injected by setAmadeus, which shows its greeting; a second instance here would
+        // open the same task file with its own background writer
     }
 
     /** 
-     * Injects the Amadeus instance 
+     * Injects the Amadeus instance and shows its reminders of tasks due soon in the conversation.
      * @param d The Amadeus instance to set
      */
     public void setAmadeus(Amadeus d) {
         amadeus = d;
         // Clear existing dialogs and show greeting from the new instance
-        dialogContainer.getChildren().clear();
-        String greeting = amadeus.getGreeting();
-        dialogContainer.getChildren().add(
-            DialogBox.getAmadeusDialog(greeting, amadeusImage)
-        );
+        messages.setAll(new ChatMessage(amadeus.getGreeting(), false));
+        amadeus.startReminders(reminder -> Platform.runLater(() -> showReminder(reminder)));
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Amadeus's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Echoes the user input in the conversation and runs it in the background, appending Amadeus's reply
+     * once it is ready. Input entered while earlier commands are still running is queued behind them,
+     * and a busy indicator is shown until all of them are done. Clears the user input after processing.
      */
     @FXML
     private void handleUserInput() {
@@ -69,12 +83,17 @@ public class MainWindow extends AnchorPane {
             return;
         }
         
-        String response = amadeus.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getAmadeusDialog(response, amadeusImage)
-        );
+        messages.add(new ChatMessage(input, true));
+        dialogList.scrollTo(messages.size() - 1);
         userInput.clear();
+        pendingCount++;
+        busyIndicator.setVisible(true);
+
+        Amadeus target = amadeus;
+        commandExecutor.execute(() -> {
+            String response = target.getResponse(input);
+            Platform.runLater(() -> showResponse(response));
+        });
         
         // If user says bye, you might want to disable further input or close the window
         if (input.trim().equalsIgnoreCase("bye")) {
@@ -82,6 +101,40 @@ public class MainWindow extends AnchorPane {
             sendButton.setDisable(true);
         }
     }
+
+    /**
+     * Appends a reply to the conversation and hides the busy indicator once no command is left running.
+     *
+     * @param response Amadeus's reply.
+     */
+    private void showResponse(String response) {
+        messages.add(new ChatMessage(response, false));
+        dialogList.scrollTo(messages.size() - 1);
+        pendingCount--;
+        busyIndicator.setVisible(pendingCount > 0);
+    }
+
+    /**
+     * Appends a reminder to the conversation, without affecting the busy indicator of running commands.
+     *
+     * @param reminder Text of the reminder.
+     */
+    private void showReminder(String reminder) {
+        messages.add(new ChatMessage(reminder, false));
+        dialogList.scrollTo(messages.size() - 1);
+    }
+
+    /**
+     * Lets the commands already entered finish, waiting at most a few seconds, and stops the background thread.
+     */
+    public void shutdown() {
+        commandExecutor.shutdown();
+        try {
+            commandExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
     
     /**
      * Handles user input when Enter key is pressed in the text field.
@@ -1,12 +1,20 @@
 package main;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 import command.CommandHandler;
 import exceptions.AmadeusException;
 import parser.Parser;
 import storage.Storage;
+import tasks.TaskBacking;
 import tasks.TaskList;
 import ui.Ui;
 
@@ -16,6 +24,9 @@ import ui.Ui;
  */
 public class Amadeus {
 
+    /** Maximum time a change waits in memory before the background writer persists it */
+    private static final long WRITE_DELAY_MILLIS = 200;
+
     /** Storage for persisting tasks */
     private final Storage storage;
 
@@ -28,20 +39,34 @@ public class Amadeus {
     /** Command handler for processing user inputs */
     private final CommandHandler handler;
 
+    /** Scheduler of reminders of tasks due soon, or null until reminders are started */
+    private ReminderScheduler reminders;
+
     /**
      * Constructs an Amadeus bot with the given file path for task storage.
      *
      * @param filePath Path to the file where tasks are saved/loaded.
      */
     public Amadeus(String filePath) {
+        this(filePath, TaskBacking.ARRAY);
+    }
+
+    /**
+     * Constructs an Amadeus bot keeping its tasks in the given kind of list.
+     *
+     * @param filePath Path to the file where tasks are saved/loaded.
+     * @param backing Kind of list holding the tasks in memory.
+     */
+    public Amadeus(String filePath, TaskBacking backing) {
         ui = new Ui();
-        storage = new Storage(filePath);
+        storage = new Storage(filePath, true);
         try {
-            tasks = new TaskList(storage.loadTasks());
+            tasks = new TaskList(backing.holding(storage.loadTasks()));
         } catch (AmadeusException e) {
             ui.showLoadingError();
-            tasks = new TaskList();
+            tasks = new TaskList(backing.holding(new ArrayList<>()));
         }
+        storage.startAsyncWrites(WRITE_DELAY_MILLIS);
         handler = new CommandHandler(tasks, storage, ui);
 
         assert tasks != null : "TaskList should be initialized";
@@ -60,7 +85,8 @@ public class Amadeus {
 
     /**
      * Gets a response from Amadeus based on user input.
-     * This method is used by the GUI to interact with the bot.
+     * This method is used by the GUI and by network sessions, and can be called from several threads at once:
+     * queries share the task list while commands that change it run one at a time.
      *
      * @param input The user's input string
      * @return The response from Amadeus
@@ -69,6 +95,7 @@ public class Amadeus {
         try {
             // Handle special case for "bye" command
             if (input.trim().equalsIgnoreCase("bye")) {
+                storage.flush();
                 return "Bye. Hope to see you again soon!";
             }
             
@@ -77,7 +104,14 @@ public class Amadeus {
             CommandHandler guiHandler = new CommandHandler(tasks, storage, stringUi);
             
             // Process the command
-            guiHandler.handleCommand(Parser.parse(input));
+            Parser.Command command = Parser.parse(input);
+            Lock lock = command.type.isMutating() ? tasks.writeLock() : tasks.readLock();
+            lock.lock();
+            try {
+                guiHandler.handleCommand(command);
+            } finally {
+                lock.unlock();
+            }
             
             // Return the captured response
             return stringUi.getCapturedOutput();
@@ -86,6 +120,21 @@ public class Amadeus {
         }
     }
 
+    /**
+     * Starts reminding of deadlines and events that are not done and fall due today or tomorrow:
+     * once now and then at the start of every day, for as long as Amadeus runs.
+     *
+     * @param notifier Receives the text of each reminder; called on this thread for the first reminder
+     *     and from a background thread for the daily ones.
+     */
+    public synchronized void startReminders(Consumer<String> notifier) {
+        if (reminders != null) {
+            return;
+        }
+        reminders = new ReminderScheduler(tasks, notifier, ReminderScheduler.DEFAULT_DAYS_AHEAD);
+        reminders.start();
+    }
+
     /**
      * Gets the initial greeting message from Amadeus.
      *
@@ -97,60 +146,133 @@ public class Amadeus {
 
     /**
      * Runs the main loop of the chatbot, reading user input and handling commands.
-     * This method is used for CLI mode.
+     * This method is used for CLI mode. When the user is at a terminal, reminders are printed after the greeting
+     * and then at the start of every day, between the replies to commands. Input piped from a file or
+     * another program gets no reminders, so that its output does not depend on the date.
      */
     public void run() {
         Scanner sc = new Scanner(System.in);
         ui.printMessage(getGreeting());
+        ui.flush();
+        if (System.console() != null) {
+            startReminders(reminder -> {
+                synchronized (ui) {
+                    ui.printMessage(reminder);
+                    ui.flush();
+                }
+            });
+        }
         String input = sc.nextLine();
 
         while (!input.equals("bye")) {
-            handler.handleCommand(Parser.parse(input));
+            Parser.Command command = Parser.parse(input);
+            // The reminder thread reads the list, so commands hold its lock as in getResponse
+            Lock lock = command.type.isMutating() ? tasks.writeLock() : tasks.readLock();
+            synchronized (ui) {
+                lock.lock();
+                try {
+                    handler.handleCommand(command);
+                } finally {
+                    lock.unlock();
+                }
+                ui.flush();
+            }
             input = sc.nextLine();
         }
 
+        shutdown();
         ui.printMessage("Bye. Hope to see you again soon!");
+        ui.flush();
         sc.close();
     }
 
     /**
-     * Main entry point of the application for CLI mode.
+     * Runs the commands in the given file without interaction, saving the tasks once at the end
+     * and at checkpoints in between, then prints a summary. No reminders are shown.
      *
-     * @param args Command line arguments (ignored).
+     * @param scriptPath Path of the file of commands, one per line.
      */
-    public static void main(String[] args) {
-        final String filePath = "." + File.separator + "data" + File.separator + "Amadeus.txt";
-        new Amadeus(filePath).run();
+    public void runScript(String scriptPath) {
+        ScriptRunner runner = new ScriptRunner(tasks, storage, ui, ScriptRunner.DEFAULT_CHECKPOINT_INTERVAL);
+        try (BufferedReader reader = new BufferedReader(new FileReader(scriptPath))) {
+            runner.run(reader);
+        } catch (IOException e) {
+            ui.showError("Error reading script: " + e.getMessage());
+        }
+        shutdown();
+        ui.flush();
     }
 
     /**
-     * Inner class to capture UI output as a string for GUI usage.
+     * Stops reminders, writes any pending changes to disk and stops background persistence.
      */
-    private static class StringCapturingUi extends Ui {
-        private StringBuilder capturedOutput = new StringBuilder();
+    public void shutdown() {
+        synchronized (this) {
+            if (reminders != null) {
+                reminders.stop();
+            }
+        }
+        storage.close();
+    }
 
-        @Override
-        public void printMessage(String message) {
-            if (capturedOutput.length() > 0) {
-                capturedOutput.append("\n");
+    /**
+     * Main entry point of the application for CLI mode.
+     * With {@code --script <file>}, runs the commands in the file instead of reading them interactively.
+     * With {@code --server <port>}, serves the task list to local network clients instead.
+     * With {@code --convert-binary}, rewrites the task file as a binary snapshot, which later runs keep.
+     * Any of these can be preceded by {@code --backing <array|columnar|tree>} to choose the kind of list
+     * holding the tasks in memory; scripts use a tree unless told otherwise, and everything else an array.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        final String filePath = "." + File.separator + "data" + File.separator + "Amadeus.txt";
+        TaskBacking backing = null;
+        if (args.length >= 2 && args[0].equals("--backing")) {
+            backing = TaskBacking.fromName(args[1]);
+            if (backing == null) {
+                System.out.println("Please choose a backing of array, columnar or tree.");
+                return;
             }
-            capturedOutput.append(message);
+            args = Arrays.copyOfRange(args, 2, args.length);
         }
+        if (args.length == 2 && args[0].equals("--script")) {
+            new Amadeus(filePath, backing == null ? TaskBacking.TREE : backing).runScript(args[1]);
+            return;
+        }
+        if (backing == null) {
+            backing = TaskBacking.ARRAY;
+        }
+        if (args.length == 2 && args[0].equals("--server")) {
+            runServer(filePath, backing, args[1]);
+            return;
+        }
+        if (args.length == 1 && args[0].equals("--convert-binary")) {
+            convertToBinary(filePath);
+            return;
+        }
+        new Amadeus(filePath, backing).run();
+    }
 
-        @Override
-        public void showLoadingError() {
-            printMessage("Error loading tasks from file.");
+    private static void convertToBinary(String filePath) {
+        try {
+            int count = Storage.convertInPlace(filePath);
+            System.out.println("Converted " + count + " tasks to the binary format.");
+        } catch (AmadeusException e) {
+            System.out.println(e.getMessage());
         }
+    }
 
-        /**
-         * Gets the captured output and resets the buffer.
-         *
-         * @return The captured output string
-         */
-        public String getCapturedOutput() {
-            String output = capturedOutput.toString();
-            capturedOutput = new StringBuilder();
-            return output;
+    private static void runServer(String filePath, TaskBacking backing, String port) {
+        try {
+            AmadeusServer server = new AmadeusServer(new Amadeus(filePath, backing), Integer.parseInt(port),
+                    AmadeusServer.DEFAULT_MAX_SESSIONS);
+            System.out.println("Amadeus is listening on port " + server.getPort());
+            server.serve();
+        } catch (NumberFormatException e) {
+            System.out.println("Please enter a valid port number.");
+        } catch (IOException e) {
+            System.out.println("Error starting server: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
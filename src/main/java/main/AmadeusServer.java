@@ -0,0 +1,193 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves one Amadeus task list to many clients over a local TCP socket.
+ *
+ * <p>The protocol is line based: a client sends one command per line, and every response (including the
+ * greeting sent on connection) is a block of lines ended by a line holding a single ".". Response lines
+ * starting with "." are sent with an extra "." in front. Sending {@code bye} ends the session.
+ *
+ * <p>Each session runs on its own thread and handles one command at a time, so a client that sends faster
+ * than it reads is slowed down by the socket buffers rather than queueing work on the server. The number of
+ * sessions is bounded: once it is reached, new clients are told the server is busy and disconnected.
+ */
+public class AmadeusServer {
+
+    /** Default maximum number of concurrent sessions */
+    public static final int DEFAULT_MAX_SESSIONS = 512;
+
+    /** Number of pending connections the operating system queues before refusing new ones */
+    private static final int BACKLOG = 128;
+
+    /** Time after which a silent session is closed */
+    private static final int IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    /** Line ending a response */
+    private static final String END_OF_RESPONSE = ".";
+
+    /** Bot handling the commands of every session */
+    private final Amadeus amadeus;
+
+    /** Socket accepting new sessions */
+    private final ServerSocket serverSocket;
+
+    /** Permits for the sessions that may run at the same time */
+    private final Semaphore sessionPermits;
+
+    /** Threads running the sessions */
+    private final ExecutorService sessions;
+
+    /** Number of sessions turned away because the server was full */
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+
+    /**
+     * Constructs a server for the given bot listening on the loopback interface.
+     *
+     * @param amadeus Bot handling the commands.
+     * @param port Port to listen on, or 0 for any free port.
+     * @param maxSessions Maximum number of concurrent sessions.
+     * @throws IOException If the port cannot be bound.
+     */
+    public AmadeusServer(Amadeus amadeus, int port, int maxSessions) throws IOException {
+        assert maxSessions > 0 : "Maximum number of sessions should be positive";
+        this.amadeus = amadeus;
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.sessionPermits = new Semaphore(maxSessions);
+        // The permits bound the number of threads, so the pool hands sessions over without queueing them
+        this.sessions = new ThreadPoolExecutor(0, maxSessions, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "amadeus-session");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return Local port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of sessions turned away because the server was full.
+     *
+     * @return Number of rejected sessions.
+     */
+    public int getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Accepts sessions until the server is closed.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.out.println("Error accepting connection: " + e.getMessage());
+                }
+                continue;
+            }
+
+            if (!sessionPermits.tryAcquire()) {
+                rejectedCount.incrementAndGet();
+                reject(socket);
+                continue;
+            }
+            sessions.execute(() -> {
+                try {
+                    runSession(socket);
+                } finally {
+                    sessionPermits.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops accepting sessions, closes the open ones and writes any pending changes to disk.
+     */
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            System.out.println("Error closing server: " + e.getMessage());
+        }
+        sessions.shutdownNow();
+        amadeus.shutdown();
+    }
+
+    private void runSession(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            writeResponse(out, amadeus.getGreeting());
+
+            String input;
+            while ((input = in.readLine()) != null) {
+                writeResponse(out, amadeus.getResponse(input));
+                if (input.trim().equalsIgnoreCase("bye")) {
+                    break;
+                }
+            }
+        } catch (SocketTimeoutException | SocketException e) {
+            // Idle or disconnected client; nothing left to answer
+        } catch (IOException e) {
+            System.out.println("Error in session: " + e.getMessage());
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket;
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            writeResponse(out, "Sorry, the server is busy. Please try again later.");
+        } catch (IOException e) {
+            // The client is turned away either way
+        }
+    }
+
+    /**
+     * Writes a response as a block of lines ended by the end-of-response line.
+     */
+    private static void writeResponse(Writer out, String response) throws IOException {
+        for (String line : response.split("\n")) {
+            if (line.startsWith(END_OF_RESPONSE)) {
+                out.write(END_OF_RESPONSE);
+            }
+            out.write(line);
+            out.write('\n');
+        }
+        out.write(END_OF_RESPONSE);
+        out.write('\n');
+        out.flush();
+    }
+}
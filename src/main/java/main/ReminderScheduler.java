@@ -0,0 +1,111 @@
+package main;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import tasks.Task;
+import tasks.TaskList;
+
+/**
+ * Reminds the user of deadlines and events that fall due soon and are not done yet.
+ * The list is checked once on the thread that starts the scheduler, so that the first reminder comes before
+ * anything else that thread prints, and then by a single background thread at the start of every day.
+ * Each check reads the tasks in the coming days from the list sorted by due date, which the list keeps in order
+ * as tasks change, so it takes time in the number of tasks due rather than the size of the list.
+ */
+public class ReminderScheduler {
+
+    /** Number of days after today covered by a reminder, so that tasks due tomorrow are announced today */
+    public static final int DEFAULT_DAYS_AHEAD = 1;
+
+    /** Task list to check */
+    private final TaskList tasks;
+
+    /** Receives the text of each reminder, on the reminder thread */
+    private final Consumer<String> notifier;
+
+    /** Number of days after today covered by a reminder */
+    private final int daysAhead;
+
+    /** Thread running the checks */
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "amadeus-reminders");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a scheduler that is idle until {@link #start} is called.
+     *
+     * @param tasks Task list to check.
+     * @param notifier Receives the text of each reminder; called from the reminder thread.
+     * @param daysAhead Number of days after today covered by a reminder.
+     */
+    public ReminderScheduler(TaskList tasks, Consumer<String> notifier, int daysAhead) {
+        this.tasks = tasks;
+        this.notifier = notifier;
+        this.daysAhead = daysAhead;
+    }
+
+    /**
+     * Checks the list now, sending any reminder before returning, and then at the start of every day.
+     */
+    public void start() {
+        remind();
+    }
+
+    /**
+     * Stops the checks; a reminder already being shown is interrupted.
+     */
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sends the reminder for today, if any, on the calling thread and schedules the next check
+     * for the start of tomorrow.
+     * The delay is measured again every day, so that changes of the clock, such as daylight saving time,
+     * do not shift the checks away from midnight.
+     */
+    private void remind() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            String reminder = reminderFor(now.toLocalDate());
+            if (reminder != null) {
+                notifier.accept(reminder);
+            }
+        } finally {
+            long delay = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+            if (!executor.isShutdown()) {
+                executor.schedule(this::remind, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Returns the reminder of the tasks due on the given day or the days just after it.
+     *
+     * @param today Day of the reminder.
+     * @return Text of the reminder, or null if no task is due.
+     */
+    String reminderFor(LocalDate today) {
+        ArrayList<Task> due = tasks.findUpcoming(today, today.plusDays(daysAhead));
+        if (due.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(due.size() == 1 ? "Reminder! This task is coming up soon:"
+                : "Reminder! These tasks are coming up soon:");
+        for (int i = 0; i < due.size(); i++) {
+            sb.append("\n").append(i + 1).append(".").append(due.get(i));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,148 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Iterator;
+
+import command.CommandHandler;
+import parser.Parser;
+import storage.Storage;
+import tasks.TaskList;
+import ui.Ui;
+
+/**
+ * Runs a file of commands against a task list in one go.
+ * Persistence is deferred while the script runs: the tasks are saved once at the end, and at regular
+ * checkpoints in between, instead of after every change. Only failures and a final summary are printed.
+ */
+public class ScriptRunner {
+
+    /** Number of commands between two checkpoints */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+
+    /** Task list the commands run against */
+    private final TaskList tasks;
+
+    /** Storage for persisting tasks */
+    private final Storage storage;
+
+    /** User interface for the summary */
+    private final Ui ui;
+
+    /** Number of commands between two checkpoints */
+    private final int checkpointInterval;
+
+    /**
+     * Constructs a ScriptRunner with the given task list, storage and UI.
+     *
+     * @param tasks Task list to run the commands against.
+     * @param storage Storage for saving tasks.
+     * @param ui UI for reporting failures and the summary.
+     * @param checkpointInterval Number of commands between two checkpoints.
+     */
+    public ScriptRunner(TaskList tasks, Storage storage, Ui ui, int checkpointInterval) {
+        assert checkpointInterval > 0 : "Checkpoint interval should be positive";
+        this.tasks = tasks;
+        this.storage = storage;
+        this.ui = ui;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Executes every command read from the given reader, until the end of the input or a bye command.
+     * Blank lines are skipped.
+     *
+     * @param reader Source of commands, one per line.
+     * @return Summary of the run.
+     * @throws IOException If the commands cannot be read.
+     */
+    public Summary run(BufferedReader reader) throws IOException {
+        long start = System.nanoTime();
+        FailureCountingUi scriptUi = new FailureCountingUi();
+        CommandHandler handler = new CommandHandler(tasks, storage, scriptUi);
+        int executed = 0;
+
+        storage.deferWrites();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                scriptUi.lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Parser.Command command = Parser.parse(line);
+                if (command.type == Parser.CommandType.BYE) {
+                    break;
+                }
+
+                try {
+                    handler.handleCommand(command);
+                } catch (RuntimeException e) {
+                    scriptUi.showError("Oops! Something went wrong: " + e.getMessage());
+                }
+                executed++;
+                if (executed % checkpointInterval == 0) {
+                    storage.checkpoint(tasks.getTasks());
+                }
+            }
+        } finally {
+            storage.resumeWrites(tasks.getTasks());
+        }
+
+        Summary summary = new Summary(executed, scriptUi.failures, (System.nanoTime() - start) / 1_000_000);
+        ui.printMessage(summary.toString());
+        return summary;
+    }
+
+    /**
+     * Outcome of a script run.
+     */
+    public static class Summary {
+        public final int executed;
+        public final int failed;
+        public final long elapsedMillis;
+
+        /**
+         * Constructs a Summary with the given counts.
+         *
+         * @param executed Number of commands executed.
+         * @param failed Number of commands that failed.
+         * @param elapsedMillis Time taken by the run, in milliseconds.
+         */
+        public Summary(int executed, int failed, long elapsedMillis) {
+            this.executed = executed;
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Script finished: %d commands executed, %d failed, in %d ms.",
+                    executed, failed, elapsedMillis);
+        }
+    }
+
+    /**
+     * UI that discards regular output and reports each failure with the line it came from.
+     */
+    private class FailureCountingUi extends Ui {
+        private int lineNumber;
+        private int failures;
+
+        @Override
+        public void printMessage(String message) {
+            // Regular responses are not shown while running a script
+        }
+
+        @Override
+        public void printLines(Iterator<String> lines) {
+            // Regular responses are not shown while running a script
+        }
+
+        @Override
+        public void showError(String message) {
+            failures++;
+            ui.printMessage("Line " + lineNumber + ": " + message);
+        }
+    }
+}
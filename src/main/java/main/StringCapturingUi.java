@@ -0,0 +1,48 @@
+package main;
+
+import java.util.Iterator;
+
+import ui.Ui;
+
+/**
+ * UI that captures output as a string instead of printing it, for GUI and network usage.
+ */
+class StringCapturingUi extends Ui {
+    private StringBuilder capturedOutput = new StringBuilder();
+
+    @Override
+    public void printMessage(String message) {
+        if (capturedOutput.length() > 0) {
+            capturedOutput.append("\n");
+        }
+        capturedOutput.append(message);
+    }
+
+    @Override
+    public void printLines(Iterator<String> lines) {
+        StringBuilder message = new StringBuilder();
+        while (lines.hasNext()) {
+            if (message.length() > 0) {
+                message.append("\n");
+            }
+            message.append(lines.next());
+        }
+        printMessage(message.toString());
+    }
+
+    @Override
+    public void showLoadingError() {
+        printMessage("Error loading tasks from file.");
+    }
+
+    /**
+     * Gets the captured output and resets the buffer.
+     *
+     * @return The captured output string
+     */
+    public String getCapturedOutput() {
+        String output = capturedOutput.toString();
+        capturedOutput = new StringBuilder();
+        return output;
+    }
+}
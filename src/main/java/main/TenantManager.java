@@ -0,0 +1,300 @@
+package main;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+import command.CommandHandler;
+import exceptions.AmadeusException;
+import parser.Parser;
+import storage.Storage;
+import tasks.TaskList;
+
+/**
+ * Serves the task lists of many users, each stored in its own file under a data directory.
+ *
+ * <p>A user's list is loaded on their first command and kept in a cache bounded by the estimated memory
+ * of the cached lists. When the bound is passed, the least recently used lists are evicted. Changes are
+ * not written as they happen: a list is saved when it is evicted or when {@link #flushAll} is called,
+ * so changes made since the last save are lost if the process crashes. An evicted list that is used again
+ * before it has been saved is taken back rather than loaded from its outdated file.
+ *
+ * <p>Commands for different users run in parallel; commands for the same user are coordinated by the
+ * locks of their {@link TaskList}.
+ */
+public class TenantManager {
+
+    /** Rough heap cost of one loaded task, including its description */
+    public static final long ESTIMATED_TASK_BYTES = 200;
+
+    /** Longest accepted user id */
+    private static final int MAX_USER_ID_LENGTH = 64;
+
+    /** Directory holding one task file per user */
+    private final File dataDirectory;
+
+    /** Estimated memory the cached lists may take before the least recently used ones are evicted */
+    private final long maxCachedBytes;
+
+    /** Loaded users, from least to most recently used */
+    private final LinkedHashMap<String, Tenant> tenants = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Lists evicted from the cache that are still being saved, by user id */
+    private final HashMap<String, Tenant> evicting = new HashMap<>();
+
+    /** Estimated memory taken by the cached lists */
+    private long cachedBytes;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Constructs a TenantManager storing task files in the given directory.
+     *
+     * @param dataDirectory Directory holding one task file per user.
+     * @param maxCachedBytes Estimated memory the cached lists may take.
+     */
+    public TenantManager(String dataDirectory, long maxCachedBytes) {
+        this.dataDirectory = new File(dataDirectory);
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    /**
+     * Runs a command for the given user and returns the response.
+     *
+     * @param userId Id of the user, made of letters, digits, '-' and '_'.
+     * @param input The user's input string.
+     * @return The response to the command.
+     * @throws AmadeusException If the user id is invalid or the user's tasks cannot be loaded.
+     */
+    public String getResponse(String userId, String input) throws AmadeusException {
+        Parser.Command command = Parser.parse(input);
+        while (true) {
+            Tenant tenant = acquire(userId);
+            String response = run(tenant, command);
+            if (response != null) {
+                if (command.type.isMutating()) {
+                    saveAll(reweigh(tenant));
+                }
+                return response;
+            }
+            // The list was saved and dropped before the command got to it; load it again
+        }
+    }
+
+    /**
+     * Saves the lists of all loaded users that changed since they were last saved.
+     */
+    public void flushAll() {
+        ArrayList<Tenant> loaded;
+        synchronized (this) {
+            loaded = new ArrayList<>(tenants.values());
+            loaded.addAll(evicting.values());
+        }
+        for (Tenant tenant : loaded) {
+            tenant.tasks.writeLock().lock();
+            try {
+                tenant.storage.checkpoint(tenant.tasks.getTasks());
+            } finally {
+                tenant.tasks.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of commands for users whose list was already loaded.
+     *
+     * @return Number of cache hits.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of commands that had to load the user's list first.
+     *
+     * @return Number of cache misses.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of lists evicted from the cache to stay within the memory bound.
+     *
+     * @return Number of evictions.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of users whose list is currently cached.
+     *
+     * @return Number of cached users.
+     */
+    public synchronized int getCachedCount() {
+        return tenants.size();
+    }
+
+    /**
+     * Runs a command on a loaded list, holding the list's lock.
+     *
+     * @return The response, or null if the list was dropped from the cache in the meantime.
+     */
+    private static String run(Tenant tenant, Parser.Command command) {
+        Lock lock = command.type.isMutating() ? tenant.tasks.writeLock() : tenant.tasks.readLock();
+        lock.lock();
+        try {
+            if (tenant.isDropped) {
+                return null;
+            }
+            StringCapturingUi ui = new StringCapturingUi();
+            new CommandHandler(tenant.tasks, tenant.storage, ui).handleCommand(command);
+            return ui.getCapturedOutput();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the list of a user, loading it first if needed, and saves any list evicted to make room for it.
+     */
+    private Tenant acquire(String userId) throws AmadeusException {
+        ArrayList<Tenant> evicted = new ArrayList<>();
+        Tenant tenant = acquire(userId, evicted);
+        saveAll(evicted);
+        return tenant;
+    }
+
+    private synchronized Tenant acquire(String userId, ArrayList<Tenant> evicted) throws AmadeusException {
+        Tenant tenant = tenants.get(userId);
+        if (tenant != null) {
+            hitCount++;
+            return tenant;
+        }
+
+        tenant = evicting.remove(userId);
+        if (tenant != null) {
+            // Evicted but not saved yet, so the file may be stale; take the list back instead
+            hitCount++;
+        } else {
+            missCount++;
+            tenant = load(userId);
+        }
+        tenants.put(userId, tenant);
+        cachedBytes += tenant.weight;
+        evictIfNeeded(evicted);
+        return tenant;
+    }
+
+    private Tenant load(String userId) throws AmadeusException {
+        if (!isValidUserId(userId)) {
+            throw new AmadeusException("Invalid user id: " + userId);
+        }
+        Storage storage = new Storage(new File(dataDirectory, userId + ".txt").getPath(), true);
+        Tenant tenant = new Tenant(userId, storage, new TaskList(storage.loadTasks()));
+        storage.deferWrites();
+        tenant.weight = estimateBytes(tenant.tasks);
+        return tenant;
+    }
+
+    /**
+     * Updates the estimated memory of a list after a change.
+     *
+     * @return Lists evicted to stay within the bound, still to be saved.
+     */
+    private ArrayList<Tenant> reweigh(Tenant tenant) {
+        // Measured before taking the manager's lock, which is never held while waiting for a list's lock
+        long weight = estimateBytes(tenant.tasks);
+        ArrayList<Tenant> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (tenants.get(tenant.userId) == tenant) {
+                cachedBytes += weight - tenant.weight;
+                tenant.weight = weight;
+                evictIfNeeded(evicted);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Moves least recently used lists out of the cache until the cached lists fit the bound,
+     * always keeping the most recent one.
+     */
+    private void evictIfNeeded(ArrayList<Tenant> evicted) {
+        Iterator<Map.Entry<String, Tenant>> eldest = tenants.entrySet().iterator();
+        while (cachedBytes > maxCachedBytes && tenants.size() > 1) {
+            Tenant tenant = eldest.next().getValue();
+            eldest.remove();
+            cachedBytes -= tenant.weight;
+            evictionCount++;
+            evicting.put(tenant.userId, tenant);
+            evicted.add(tenant);
+        }
+    }
+
+    /**
+     * Saves evicted lists and drops them, unless they were taken back into the cache in the meantime.
+     * Called without holding the manager's lock, so that saving does not hold up other users.
+     */
+    private void saveAll(ArrayList<Tenant> evicted) {
+        for (Tenant tenant : evicted) {
+            tenant.tasks.writeLock().lock();
+            try {
+                tenant.storage.checkpoint(tenant.tasks.getTasks());
+                synchronized (this) {
+                    if (evicting.get(tenant.userId) == tenant) {
+                        evicting.remove(tenant.userId);
+                        tenant.isDropped = true;
+                    }
+                }
+            } finally {
+                tenant.tasks.writeLock().unlock();
+            }
+        }
+    }
+
+    private static long estimateBytes(TaskList tasks) {
+        return tasks.size() * ESTIMATED_TASK_BYTES;
+    }
+
+    private static boolean isValidUserId(String userId) {
+        if (userId.isEmpty() || userId.length() > MAX_USER_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < userId.length(); i++) {
+            char c = userId.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A loaded user's list and the storage it is saved to.
+     */
+    private static class Tenant {
+        final String userId;
+        final Storage storage;
+        final TaskList tasks;
+
+        /** Estimated memory taken by the list */
+        private long weight;
+
+        /** Whether the list has been saved and dropped; commands must then load it again */
+        private boolean isDropped;
+
+        Tenant(String userId, Storage storage, TaskList tasks) {
+            this.userId = userId;
+            this.storage = storage;
+            this.tasks = tasks;
+        }
+    }
+}
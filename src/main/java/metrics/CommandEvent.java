@@ -0,0 +1,42 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event written when a command has been handled.
+ * Only written while a flight recording is running, so that slow commands can be lined up with garbage
+ * collections and other JVM activity. The event is committed at the end of the command and carries the time
+ * spent in each stage after parsing.
+ */
+@Name("amadeus.Command")
+@Label("Command")
+@Category("Amadeus")
+@Description("Handling of one user command")
+class CommandEvent extends jdk.jfr.Event {
+
+    @Label("Command Type")
+    private String commandType;
+
+    @Label("Execute Time")
+    @Timespan
+    private long executeNanos;
+
+    @Label("Persist Time")
+    @Timespan
+    private long persistNanos;
+
+    @Label("Render Time")
+    @Timespan
+    private long renderNanos;
+
+    CommandEvent(String commandType, long executeNanos, long persistNanos, long renderNanos) {
+        this.commandType = commandType;
+        this.executeNanos = executeNanos;
+        this.persistNanos = persistNanos;
+        this.renderNanos = renderNanos;
+    }
+}
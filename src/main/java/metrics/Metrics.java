@@ -0,0 +1,203 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import parser.Parser;
+
+/**
+ * Collects latency and storage statistics for the whole process.
+ *
+ * <p>The handling of each command is split into four stages: parse, execute, persist and render, each with a
+ * latency histogram per command type. Reads and writes of task files are counted with their size and time.
+ * While a flight recording is running, each command and each storage operation is also written as a
+ * flight recorder event.
+ *
+ * <p>Collection is on by default and can be switched off by starting the JVM with
+ * {@code -Damadeus.metrics=false}, in which case every recording method returns at once.
+ */
+public final class Metrics {
+
+    /** System property switching collection on or off */
+    public static final String PROPERTY = "amadeus.metrics";
+
+    /** Whether statistics are collected; fixed at startup so that disabled checks compile away */
+    public static final boolean IS_ENABLED = Boolean.parseBoolean(System.getProperty(PROPERTY, "true"));
+
+    /** Names of the stages of a command, in the order of {@link CommandStats#stages} */
+    private static final String[] STAGE_NAMES = {"parse", "execute", "persist", "render"};
+
+    private static final CommandStats[] COMMAND_STATS = new CommandStats[Parser.CommandType.values().length];
+
+    private static final IoStats[] IO_STATS = new IoStats[StorageOperation.values().length];
+
+    static {
+        for (int i = 0; i < COMMAND_STATS.length; i++) {
+            COMMAND_STATS[i] = new CommandStats();
+        }
+        for (int i = 0; i < IO_STATS.length; i++) {
+            IO_STATS[i] = new IoStats();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Kinds of storage operations that are counted.
+     */
+    public enum StorageOperation {
+        LOAD("loads"), SNAPSHOT_WRITE("snapshot writes"), JOURNAL_WRITE("journal writes");
+
+        private final String label;
+
+        StorageOperation(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Returns the current time for measuring a duration with {@link #elapsedSince}.
+     *
+     * @return Current time in nanoseconds, or 0 if statistics are disabled.
+     */
+    public static long startTimer() {
+        return IS_ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Returns the time elapsed since a timer was started.
+     *
+     * @param start Value returned by {@link #startTimer}.
+     * @return Elapsed time in nanoseconds, or 0 if statistics are disabled.
+     */
+    public static long elapsedSince(long start) {
+        return IS_ENABLED ? System.nanoTime() - start : 0;
+    }
+
+    /**
+     * Records the time taken to parse a command.
+     *
+     * @param type Type of the parsed command.
+     * @param nanos Parse time in nanoseconds.
+     */
+    public static void recordParse(Parser.CommandType type, long nanos) {
+        if (IS_ENABLED) {
+            COMMAND_STATS[type.ordinal()].parse.record(nanos);
+        }
+    }
+
+    /**
+     * Records the handling of a command, split into its stages.
+     *
+     * @param type Type of the command.
+     * @param executeNanos Time spent running the command, apart from persisting and rendering.
+     * @param persistNanos Time spent handing changes to storage.
+     * @param renderNanos Time spent writing the response to the UI.
+     */
+    public static void recordCommand(Parser.CommandType type, long executeNanos, long persistNanos,
+            long renderNanos) {
+        if (!IS_ENABLED) {
+            return;
+        }
+        CommandStats stats = COMMAND_STATS[type.ordinal()];
+        stats.execute.record(executeNanos);
+        stats.persist.record(persistNanos);
+        stats.render.record(renderNanos);
+
+        // Only written while a flight recording is running
+        new CommandEvent(type.name(), executeNanos, persistNanos, renderNanos).commit();
+    }
+
+    /**
+     * Records a read or write of a task file.
+     *
+     * @param operation Kind of operation.
+     * @param bytes Number of bytes read or written.
+     * @param nanos Time taken in nanoseconds.
+     */
+    public static void recordStorage(StorageOperation operation, long bytes, long nanos) {
+        if (!IS_ENABLED) {
+            return;
+        }
+        IoStats stats = IO_STATS[operation.ordinal()];
+        stats.count.increment();
+        stats.bytes.add(bytes);
+        stats.nanos.add(nanos);
+
+        new StorageEvent(operation.name(), bytes, nanos).commit();
+    }
+
+    /**
+     * Formats the statistics collected so far for display.
+     *
+     * The stats command itself is left out: the report is built while it runs, before its latency is recorded.
+     *
+     * @return Report listing the latencies of every command type seen and the storage counters.
+     */
+    public static String report() {
+        if (!IS_ENABLED) {
+            return "Statistics are disabled. Start Amadeus without -D" + PROPERTY + "=false to collect them.";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Command latency in microseconds (mean / median / 99th percentile / max):");
+        boolean hasCommands = false;
+        for (Parser.CommandType type : Parser.CommandType.values()) {
+            if (type == Parser.CommandType.STATS) {
+                continue;
+            }
+            CommandStats stats = COMMAND_STATS[type.ordinal()];
+            long count = Math.max(stats.parse.getCount(), stats.execute.getCount());
+            if (count == 0) {
+                continue;
+            }
+            hasCommands = true;
+            sb.append(String.format("\n%s: %d", type.name().toLowerCase(), count));
+            LatencyHistogram[] stages = stats.stages();
+            for (int i = 0; i < stages.length; i++) {
+                if (stages[i].getCount() > 0) {
+                    sb.append(String.format("\n  %-8s %s", STAGE_NAMES[i], formatLatency(stages[i])));
+                }
+            }
+        }
+        if (!hasCommands) {
+            sb.append("\nNo commands yet.");
+        }
+
+        sb.append("\nStorage:");
+        for (StorageOperation operation : StorageOperation.values()) {
+            IoStats stats = IO_STATS[operation.ordinal()];
+            sb.append(String.format("\n  %s: %d, %d bytes in %.1f ms", operation.label, stats.count.sum(),
+                    stats.bytes.sum(), stats.nanos.sum() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    private static String formatLatency(LatencyHistogram histogram) {
+        return String.format("%.1f / %.1f / %.1f / %.1f", histogram.getMean() / 1e3,
+                histogram.getPercentile(0.5) / 1e3, histogram.getPercentile(0.99) / 1e3, histogram.getMax() / 1e3);
+    }
+
+    /**
+     * Latency histograms of the stages of one command type.
+     */
+    private static class CommandStats {
+        private final LatencyHistogram parse = new LatencyHistogram();
+        private final LatencyHistogram execute = new LatencyHistogram();
+        private final LatencyHistogram persist = new LatencyHistogram();
+        private final LatencyHistogram render = new LatencyHistogram();
+
+        LatencyHistogram[] stages() {
+            return new LatencyHistogram[] {parse, execute, persist, render};
+        }
+    }
+
+    /**
+     * Counters of one kind of storage operation.
+     */
+    private static class IoStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
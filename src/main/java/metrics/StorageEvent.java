@@ -0,0 +1,35 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event written when a task file has been read, or a snapshot or journal records written.
+ */
+@Name("amadeus.Storage")
+@Label("Storage")
+@Category("Amadeus")
+@Description("Load of the task file, or write of a snapshot or journal records")
+class StorageEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    @Label("Time")
+    @Timespan
+    private long nanos;
+
+    StorageEvent(String operation, long bytes, long nanos) {
+        this.operation = operation;
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+}
@@ -1,6 +1,8 @@
 package parser;
 
+import metrics.Metrics;
 import tasks.Deadline;
+import tasks.DescriptionPool;
 import tasks.Event;
 import tasks.Task;
 import tasks.ToDo;
@@ -12,7 +14,29 @@ public class Parser {
 
     /** Enum representing all possible command types */
     public enum CommandType {
-        LIST, MARK, UNMARK, TODO, DEADLINE, EVENT, DELETE, FIND, BYE, INVALID, HELP
+        LIST, MARK, UNMARK, TODO, DEADLINE, EVENT, DELETE, FIND, DUE, ON, BETWEEN, BYE, INVALID, HELP, STATS,
+        UNDO, REDO, FUZZY_FIND, UPCOMING;
+
+        /**
+         * Returns whether commands of this type change the task list.
+         *
+         * @return True for commands that add, remove or update tasks, or undo or redo such changes.
+         */
+        public boolean isMutating() {
+            switch (this) {
+            case MARK:
+            case UNMARK:
+            case TODO:
+            case DEADLINE:
+            case EVENT:
+            case DELETE:
+            case UNDO:
+            case REDO:
+                return true;
+            default:
+                return false;
+            }
+        }
     }
 
     /**
@@ -35,82 +59,280 @@ public class Parser {
         }
     }
 
+    /** Keyword selecting a page of the list, as in {@code list page 3} */
+    public static final String PAGE_KEYWORD = "page";
+
+    /** Prefix of the order to list the tasks in, as in {@code list sort:due} */
+    public static final String SORT_PREFIX = "sort:";
+
+    /** Arguments of commands that take none */
+    private static final String[] NO_ARGS = {};
+
+    private static final Command INVALID_COMMAND = new Command(CommandType.INVALID, NO_ARGS);
+    private static final Command LIST_COMMAND = new Command(CommandType.LIST, NO_ARGS);
+    private static final Command BYE_COMMAND = new Command(CommandType.BYE, NO_ARGS);
+    private static final Command HELP_COMMAND = new Command(CommandType.HELP, NO_ARGS);
+    private static final Command STATS_COMMAND = new Command(CommandType.STATS, NO_ARGS);
+    private static final Command UNDO_COMMAND = new Command(CommandType.UNDO, NO_ARGS);
+    private static final Command REDO_COMMAND = new Command(CommandType.REDO, NO_ARGS);
+    private static final Command UPCOMING_COMMAND = new Command(CommandType.UPCOMING, NO_ARGS);
+
+    /** Command words, matched against the first word of the input */
+    private static final String[] COMMAND_WORDS = {
+        "list", "mark", "unmark", "todo", "deadline", "event", "delete", "bye", "find", "due", "on", "between", "help",
+        "stats", "undo", "redo", "find~", "upcoming"
+    };
+
+    /** Command types of the words in {@link #COMMAND_WORDS}, in the same order */
+    private static final CommandType[] COMMAND_TYPES = {
+        CommandType.LIST, CommandType.MARK, CommandType.UNMARK, CommandType.TODO, CommandType.DEADLINE,
+        CommandType.EVENT, CommandType.DELETE, CommandType.BYE, CommandType.FIND, CommandType.DUE, CommandType.ON,
+        CommandType.BETWEEN, CommandType.HELP, CommandType.STATS, CommandType.UNDO, CommandType.REDO,
+        CommandType.FUZZY_FIND, CommandType.UPCOMING
+    };
+
+    private static final String BY_MARKER = " /by ";
+    private static final String FROM_MARKER = " /from ";
+    private static final String TO_MARKER = " /to ";
+
     /**
      * Parses the user input string and returns a corresponding Command object.
+     * The input is scanned by index: only the argument strings of the returned command are allocated,
+     * and commands without arguments are shared.
      *
      * @param input User input string.
      * @return Parsed Command object; returns CommandType.INVALID if input is invalid.
      */
     public static Command parse(String input) {
-        input = input.trim();
-        if (input.isEmpty()) {
-            return new Command(CommandType.INVALID, new String[]{});
-        }
-
-        String[] tokens = input.split(" ", 2); 
-        String commandWord = tokens[0];
-        String args = tokens.length > 1 ? tokens[1] : "";
-
-        switch (commandWord) {
-        case "list":
-            return new Command(CommandType.LIST, new String[]{});
-        case "mark":
-            return parseMarkUnmark(args, CommandType.MARK);
-        case "unmark":
-            return parseMarkUnmark(args, CommandType.UNMARK);
-        case "todo":
-            return parseTodo(args);
-        case "deadline":
-            return parseDeadline(args);
-        case "event":
-            return parseEvent(args);
-        case "delete":
-            return parseDelete(args);
-        case "bye":
-            return new Command(CommandType.BYE, new String[]{});
-        case "find":
-            return parseFind(args);
-        case "help":
-            return new Command(CommandType.HELP, new String[]{});
+        if (!Metrics.IS_ENABLED) {
+            return parseInput(input);
+        }
+        long start = System.nanoTime();
+        Command command = parseInput(input);
+        Metrics.recordParse(command.type, System.nanoTime() - start);
+        return command;
+    }
+
+    private static Command parseInput(String input) {
+        int start = skipWhitespace(input, 0, input.length());
+        int end = trimEnd(input, start, input.length());
+        if (start == end) {
+            return INVALID_COMMAND;
+        }
+
+        int wordEnd = indexOf(input, ' ', start, end);
+        int argsStart = wordEnd < end ? wordEnd + 1 : end;
+
+        switch (commandTypeOf(input, start, wordEnd)) {
+        case LIST:
+            return parseList(input, argsStart, end);
+        case MARK:
+            return parseSingleArg(input, argsStart, end, CommandType.MARK);
+        case UNMARK:
+            return parseSingleArg(input, argsStart, end, CommandType.UNMARK);
+        case TODO:
+            return parseTodo(input, argsStart, end);
+        case DEADLINE:
+            return parseDeadline(input, argsStart, end);
+        case EVENT:
+            return parseEvent(input, argsStart, end);
+        case DELETE:
+            return parseSingleArg(input, argsStart, end, CommandType.DELETE);
+        case BYE:
+            return BYE_COMMAND;
+        case FIND:
+            return parseSingleArg(input, argsStart, end, CommandType.FIND);
+        case FUZZY_FIND:
+            return parseSingleArg(input, argsStart, end, CommandType.FUZZY_FIND);
+        case DUE:
+            return parseSingleArg(input, argsStart, end, CommandType.DUE);
+        case ON:
+            return parseSingleArg(input, argsStart, end, CommandType.ON);
+        case BETWEEN:
+            return parseBetween(input, argsStart, end);
+        case UPCOMING:
+            return parseUpcoming(input, argsStart, end);
+        case HELP:
+            return HELP_COMMAND;
+        case STATS:
+            return STATS_COMMAND;
+        case UNDO:
+            return UNDO_COMMAND;
+        case REDO:
+            return REDO_COMMAND;
         default:
-            return new Command(CommandType.INVALID, new String[]{});
+            return INVALID_COMMAND;
+        }
+    }
+
+    /**
+     * Returns the type of the command word spanning the given range, or INVALID if there is no such word.
+     */
+    private static CommandType commandTypeOf(String input, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < COMMAND_WORDS.length; i++) {
+            String word = COMMAND_WORDS[i];
+            if (word.length() == length && input.startsWith(word, start)) {
+                return COMMAND_TYPES[i];
+            }
+        }
+        return CommandType.INVALID;
+    }
+
+    /**
+     * Parses the optional selection of a list command: {@code page <n>}, giving arguments
+     * {@code [PAGE_KEYWORD, n]}, or a range {@code <a>-<b>}, giving arguments {@code [a, b]}.
+     * The selection may be preceded by an order such as {@code sort:due}, which becomes the first argument.
+     */
+    private static Command parseList(String input, int start, int end) {
+        int first = skipWhitespace(input, start, end);
+        if (first == end) {
+            return LIST_COMMAND;
+        }
+        int firstEnd = indexOf(input, ' ', first, end);
+        if (input.startsWith(SORT_PREFIX, first)) {
+            Command selection = parseList(input, firstEnd, end);
+            if (selection.type == CommandType.INVALID || firstEnd - first == SORT_PREFIX.length()
+                    || selection.args.length > 0 && selection.args[0].startsWith(SORT_PREFIX)) {
+                return INVALID_COMMAND;
+            }
+            String[] args = new String[selection.args.length + 1];
+            args[0] = input.substring(first, firstEnd);
+            System.arraycopy(selection.args, 0, args, 1, selection.args.length);
+            return new Command(CommandType.LIST, args);
+        }
+        if (firstEnd == end) {
+            int dash = indexOf(input, '-', first, end);
+            if (dash == end) {
+                return INVALID_COMMAND;
+            }
+            return new Command(CommandType.LIST, new String[]{
+                input.substring(first, dash), input.substring(dash + 1, end)});
+        }
+        if (firstEnd - first != PAGE_KEYWORD.length() || !input.startsWith(PAGE_KEYWORD, first)) {
+            return INVALID_COMMAND;
         }
+        int number = skipWhitespace(input, firstEnd, end);
+        if (indexOf(input, ' ', number, end) != end) {
+            return INVALID_COMMAND;
+        }
+        return new Command(CommandType.LIST, new String[]{PAGE_KEYWORD, input.substring(number, end)});
     }
 
-    private static Command parseMarkUnmark(String args, CommandType type) {
-        if (args.isEmpty()) return new Command(CommandType.INVALID, new String[]{});
-        return new Command(type, new String[]{args.trim()});
+    /**
+     * Parses a command taking one argument, which is trimmed.
+     */
+    private static Command parseSingleArg(String input, int start, int end, CommandType type) {
+        if (start == end) {
+            return INVALID_COMMAND;
+        }
+        int argStart = skipWhitespace(input, start, end);
+        return new Command(type, new String[]{input.substring(argStart, end)});
     }
 
-    private static Command parseTodo(String args) {
-        if (args.isEmpty()) return new Command(CommandType.INVALID, new String[]{});
-        return new Command(CommandType.TODO, new String[]{args});
+    private static Command parseTodo(String input, int start, int end) {
+        if (start == end) {
+            return INVALID_COMMAND;
+        }
+        return new Command(CommandType.TODO, new String[]{input.substring(start, end)});
+    }
+
+    private static Command parseDeadline(String input, int start, int end) {
+        int by = indexOf(input, BY_MARKER, start, end);
+        if (by < 0) {
+            return INVALID_COMMAND;
+        }
+        return new Command(CommandType.DEADLINE, new String[]{
+            input.substring(start, by), input.substring(by + BY_MARKER.length(), end)});
+    }
+
+    private static Command parseEvent(String input, int start, int end) {
+        int from = indexOf(input, FROM_MARKER, start, end);
+        if (from < 0) {
+            return INVALID_COMMAND;
+        }
+        int fromEnd = from + FROM_MARKER.length();
+        int to = indexOf(input, TO_MARKER, fromEnd, end);
+        if (to < 0) {
+            return INVALID_COMMAND;
+        }
+        return new Command(CommandType.EVENT, new String[]{
+            input.substring(start, from), input.substring(fromEnd, to), input.substring(to + TO_MARKER.length(), end)});
+    }
+
+    /**
+     * Parses the two dates of a between command, separated by one or more spaces.
+     */
+    private static Command parseBetween(String input, int start, int end) {
+        int first = skipWhitespace(input, start, end);
+        int firstEnd = indexOf(input, ' ', first, end);
+        if (firstEnd == end) {
+            return INVALID_COMMAND;
+        }
+        int second = firstEnd;
+        while (input.charAt(second) == ' ') {
+            second++;
+        }
+        if (indexOf(input, ' ', second, end) != end) {
+            return INVALID_COMMAND;
+        }
+        return new Command(CommandType.BETWEEN, new String[]{
+            input.substring(first, firstEnd), input.substring(second, end)});
     }
 
-    private static Command parseDeadline(String args) {
-        String[] parts = args.split(" /by ", 2);
-        if (parts.length != 2) return new Command(CommandType.INVALID, new String[]{});
-        return new Command(CommandType.DEADLINE, parts);
+    /**
+     * Parses the number of days of an upcoming command, optionally followed by {@code day} or {@code days},
+     * giving arguments {@code [n]}. Without a number, the command has no arguments.
+     */
+    private static Command parseUpcoming(String input, int start, int end) {
+        int first = skipWhitespace(input, start, end);
+        if (first == end) {
+            return UPCOMING_COMMAND;
+        }
+        int firstEnd = indexOf(input, ' ', first, end);
+        String unit = input.substring(skipWhitespace(input, firstEnd, end), end);
+        if (!unit.isEmpty() && !unit.equals("days") && !unit.equals("day")) {
+            return INVALID_COMMAND;
+        }
+        return new Command(CommandType.UPCOMING, new String[]{input.substring(first, firstEnd)});
     }
 
-    private static Command parseEvent(String args) {
-        String[] parts1 = args.split(" /from ", 2);
-        if (parts1.length != 2) return new Command(CommandType.INVALID, new String[]{});
-        String[] parts2 = parts1[1].split(" /to ", 2);
-        if (parts2.length != 2) return new Command(CommandType.INVALID, new String[]{});
-        return new Command(CommandType.EVENT, new String[]{parts1[0], parts2[0], parts2[1]});
+    /**
+     * Returns the index of the first character in the range that is not whitespace, as defined by
+     * {@link String#trim()}, or the end of the range.
+     */
+    private static int skipWhitespace(String input, int start, int end) {
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
     }
 
-    private static Command parseDelete(String args) {
-        if (args.isEmpty()) return new Command(CommandType.INVALID, new String[]{});
-        return new Command(CommandType.DELETE, new String[]{args.trim()});
+    /**
+     * Returns the end of the range without trailing whitespace, as defined by {@link String#trim()}.
+     */
+    private static int trimEnd(String input, int start, int end) {
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
     }
 
-    private static Command parseFind(String args) {
-        if (args.isEmpty()) return new Command(CommandType.INVALID, new String[]{});
-        return new Command(CommandType.FIND, new String[]{args.trim()});
+    /**
+     * Returns the index of the first occurrence of a character in the range, or the end of the range.
+     */
+    private static int indexOf(String input, char c, int start, int end) {
+        int index = input.indexOf(c, start);
+        return index < 0 || index > end ? end : index;
     }
 
+    /**
+     * Returns the index of the first occurrence of a marker lying entirely within the range, or -1.
+     */
+    private static int indexOf(String input, String marker, int start, int end) {
+        int index = input.indexOf(marker, start);
+        return index < 0 || index + marker.length() > end ? -1 : index;
+    }
 
     /**
      * Generates a Task object from a given Command object.
@@ -121,11 +343,11 @@ public class Parser {
     public static Task createTask(Command command) {
         switch (command.type) {
         case TODO:
-            return new ToDo(command.args[0]);
+            return new ToDo(DescriptionPool.intern(command.args[0]));
         case DEADLINE:
-            return new Deadline(command.args[0], command.args[1]);
+            return new Deadline(DescriptionPool.intern(command.args[0]), command.args[1]);
         case EVENT:
-            return new Event(command.args[0], command.args[1], command.args[2]);
+            return new Event(DescriptionPool.intern(command.args[0]), command.args[1], command.args[2]);
         default:
             return null;
         }
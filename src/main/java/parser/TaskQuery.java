@@ -0,0 +1,488 @@
+package parser;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import exceptions.AmadeusException;
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Task;
+import tasks.TaskType;
+
+/**
+ * A boolean query over tasks given to a find command, such as
+ * {@code "book" and not done and type:deadline and by<2025-09-01}.
+ *
+ * <p>Conditions are a quoted text the description must contain, a bare word standing for the same,
+ * {@code done} or {@code undone}, {@code type:todo}, {@code type:deadline} or {@code type:event}, or a date
+ * field of deadlines ({@code by}) or events ({@code from}, {@code to}) compared with {@code <}, {@code <=},
+ * {@code =}, {@code >=} or {@code >} to a date, as in {@code from>=2025-09-01}. Tasks without the field do not
+ * match a date condition. Conditions are combined with {@code not}, {@code and} and {@code or}, binding in that
+ * order, and grouped with parentheses.
+ *
+ * <p>The query is parsed into a tree once and compiled into a single predicate: nested {@code and} and
+ * {@code or} groups are flattened, double negations removed, and the conditions of each group reordered so
+ * that cheap checks on the status, type and dates run before searching the description.
+ */
+public class TaskQuery {
+
+    /** Kinds of the tokens of a query */
+    private enum TokenKind {
+        WORD, TEXT, OPEN, CLOSE
+    }
+
+    /** Date fields a condition can compare */
+    private enum DateField {
+        BY, FROM, TO
+    }
+
+    /** Comparison operators of date conditions, longest spelling first so that {@code <=} is not read as {@code <} */
+    private enum Comparison {
+        AT_MOST("<="), AT_LEAST(">="), BEFORE("<"), AFTER(">"), EQUAL("=");
+
+        private final String symbol;
+
+        Comparison(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean holds(int order) {
+            switch (this) {
+            case AT_MOST:
+                return order <= 0;
+            case AT_LEAST:
+                return order >= 0;
+            case BEFORE:
+                return order < 0;
+            case AFTER:
+                return order > 0;
+            default:
+                return order == 0;
+            }
+        }
+    }
+
+    private static final String TYPE_PREFIX = "type:";
+
+    /** Compiled query, true for the matching tasks */
+    private final Predicate<Task> predicate;
+
+    private TaskQuery(Predicate<Task> predicate) {
+        this.predicate = predicate;
+    }
+
+    /**
+     * Returns whether the argument of a find command is a query rather than a keyword to search for,
+     * that is whether it contains a quoted text, a parenthesis or a condition on the type or a date.
+     *
+     * @param spec Argument of the command.
+     * @return True if the argument should be parsed as a query.
+     */
+    public static boolean isQuery(String spec) {
+        if (spec.indexOf('"') >= 0 || spec.indexOf('(') >= 0) {
+            return true;
+        }
+        for (String word : spec.split(" ")) {
+            if (word.startsWith(TYPE_PREFIX) || dateFieldOf(word) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses and compiles the argument of a find command.
+     *
+     * @param spec Query, such as {@code "book" and not done}.
+     * @return The compiled query.
+     * @throws AmadeusException If the query is not valid.
+     */
+    public static TaskQuery parse(String spec) throws AmadeusException {
+        ArrayList<String> tokens = new ArrayList<>();
+        ArrayList<TokenKind> kinds = new ArrayList<>();
+        int i = 0;
+        while (i < spec.length()) {
+            char c = spec.charAt(i);
+            if (c == ' ') {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                kinds.add(c == '(' ? TokenKind.OPEN : TokenKind.CLOSE);
+                i++;
+            } else if (c == '"') {
+                int end = spec.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw invalid("a quoted text is not closed");
+                }
+                tokens.add(spec.substring(i + 1, end));
+                kinds.add(TokenKind.TEXT);
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < spec.length() && " ()\"".indexOf(spec.charAt(end)) < 0) {
+                    end++;
+                }
+                tokens.add(spec.substring(i, end));
+                kinds.add(TokenKind.WORD);
+                i = end;
+            }
+        }
+        if (tokens.isEmpty()) {
+            throw invalid("it is empty");
+        }
+        return new TaskQuery(new QueryParser(tokens, kinds).parse().simplify().compile());
+    }
+
+    /**
+     * Returns the compiled predicate, true for the tasks matching the query.
+     *
+     * @return Predicate over tasks.
+     */
+    public Predicate<Task> getPredicate() {
+        return predicate;
+    }
+
+    private static AmadeusException invalid(String reason) {
+        return new AmadeusException("Sorry, I couldn't understand that query: " + reason + ".");
+    }
+
+    private static Node parseWord(String word) throws AmadeusException {
+        switch (word) {
+        case "and":
+        case "or":
+            throw invalid("\"" + word + "\" should come between two conditions");
+        case "done":
+            return new Status(true);
+        case "undone":
+            return new Status(false);
+        default:
+            break;
+        }
+        if (word.startsWith(TYPE_PREFIX)) {
+            try {
+                return new Type(TaskType.valueOf(word.substring(TYPE_PREFIX.length()).toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw invalid("the type should be todo, deadline or event");
+            }
+        }
+        DateField field = dateFieldOf(word);
+        if (field == null) {
+            return new Text(word);
+        }
+        String rest = word.substring(field.name().length());
+        for (Comparison comparison : Comparison.values()) {
+            if (rest.startsWith(comparison.symbol)) {
+                try {
+                    LocalDate date = LocalDate.parse(rest.substring(comparison.symbol.length()));
+                    return new DateCondition(field, comparison, date);
+                } catch (DateTimeParseException e) {
+                    throw invalid("dates should be in the format yyyy-mm-dd");
+                }
+            }
+        }
+        throw invalid("unexpected \"" + word + "\"");
+    }
+
+    /**
+     * Returns the date field a word compares, such as {@code BY} for {@code by<2025-09-01}, or null if the word
+     * is not a date condition.
+     */
+    private static DateField dateFieldOf(String word) {
+        for (DateField field : DateField.values()) {
+            String name = field.name().toLowerCase(Locale.ROOT);
+            if (word.length() > name.length() && word.startsWith(name)
+                    && "<=>".indexOf(word.charAt(name.length())) >= 0) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recursive-descent parser turning the tokens of a query into a tree of nodes.
+     */
+    private static class QueryParser {
+        private final List<String> tokens;
+        private final List<TokenKind> kinds;
+
+        /** Position of the next token to read */
+        private int next;
+
+        QueryParser(List<String> tokens, List<TokenKind> kinds) {
+            this.tokens = tokens;
+            this.kinds = kinds;
+        }
+
+        Node parse() throws AmadeusException {
+            Node root = parseOr();
+            if (next < tokens.size()) {
+                throw invalid("unexpected \"" + tokens.get(next) + "\"");
+            }
+            return root;
+        }
+
+        private boolean acceptWord(String word) {
+            if (next < tokens.size() && kinds.get(next) == TokenKind.WORD && tokens.get(next).equals(word)) {
+                next++;
+                return true;
+            }
+            return false;
+        }
+
+        private Node parseOr() throws AmadeusException {
+            ArrayList<Node> terms = new ArrayList<>();
+            terms.add(parseAnd());
+            while (acceptWord("or")) {
+                terms.add(parseAnd());
+            }
+            return terms.size() == 1 ? terms.get(0) : new Group(false, terms);
+        }
+
+        private Node parseAnd() throws AmadeusException {
+            ArrayList<Node> terms = new ArrayList<>();
+            terms.add(parseNot());
+            while (acceptWord("and")) {
+                terms.add(parseNot());
+            }
+            return terms.size() == 1 ? terms.get(0) : new Group(true, terms);
+        }
+
+        private Node parseNot() throws AmadeusException {
+            if (acceptWord("not")) {
+                return new Not(parseNot());
+            }
+            return parseCondition();
+        }
+
+        private Node parseCondition() throws AmadeusException {
+            if (next == tokens.size()) {
+                throw invalid("a condition is missing at the end");
+            }
+            String token = tokens.get(next);
+            switch (kinds.get(next++)) {
+            case OPEN:
+                Node inner = parseOr();
+                if (next == tokens.size() || kinds.get(next) != TokenKind.CLOSE) {
+                    throw invalid("a parenthesis is not closed");
+                }
+                next++;
+                return inner;
+            case CLOSE:
+                throw invalid("unexpected \")\"");
+            case TEXT:
+                return new Text(token);
+            default:
+                return parseWord(token);
+            }
+        }
+    }
+
+    /**
+     * A node of the parsed query.
+     */
+    private abstract static class Node {
+        /**
+         * Returns the relative cost of evaluating the node on one task, used to order the conditions of a group.
+         */
+        abstract int cost();
+
+        /**
+         * Returns an equivalent node with nested groups of the same kind flattened and double negations removed.
+         */
+        Node simplify() {
+            return this;
+        }
+
+        /**
+         * Returns the predicate evaluating the node.
+         */
+        abstract Predicate<Task> compile();
+    }
+
+    /** Description contains a text */
+    private static class Text extends Node {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        int cost() {
+            return 4;
+        }
+
+        @Override
+        Predicate<Task> compile() {
+            String needle = text;
+            return task -> task.getDescription().contains(needle);
+        }
+    }
+
+    /** Task is done or not done */
+    private static class Status extends Node {
+        private final boolean isDone;
+
+        Status(boolean isDone) {
+            this.isDone = isDone;
+        }
+
+        @Override
+        int cost() {
+            return 1;
+        }
+
+        @Override
+        Predicate<Task> compile() {
+            return isDone ? Task::isDone : task -> !task.isDone();
+        }
+    }
+
+    /** Task is of a type */
+    private static class Type extends Node {
+        private final TaskType type;
+
+        Type(TaskType type) {
+            this.type = type;
+        }
+
+        @Override
+        int cost() {
+            return 1;
+        }
+
+        @Override
+        Predicate<Task> compile() {
+            TaskType expected = type;
+            return task -> task.getType() == expected;
+        }
+    }
+
+    /** Date field of a deadline or event compares to a date */
+    private static class DateCondition extends Node {
+        private final DateField field;
+        private final Comparison comparison;
+        private final LocalDate date;
+
+        DateCondition(DateField field, Comparison comparison, LocalDate date) {
+            this.field = field;
+            this.comparison = comparison;
+            this.date = date;
+        }
+
+        @Override
+        int cost() {
+            return 2;
+        }
+
+        @Override
+        Predicate<Task> compile() {
+            Comparison op = comparison;
+            LocalDate bound = date;
+            switch (field) {
+            case BY:
+                return task -> task instanceof Deadline && holds(op, ((Deadline) task).getBy(), bound);
+            case FROM:
+                return task -> task instanceof Event && holds(op, ((Event) task).getFrom(), bound);
+            default:
+                return task -> task instanceof Event && holds(op, ((Event) task).getTo(), bound);
+            }
+        }
+
+        private static boolean holds(Comparison op, LocalDate value, LocalDate bound) {
+            return value != null && op.holds(value.compareTo(bound));
+        }
+    }
+
+    /** Negation of a condition */
+    private static class Not extends Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int cost() {
+            return operand.cost();
+        }
+
+        @Override
+        Node simplify() {
+            Node inner = operand.simplify();
+            return inner instanceof Not ? ((Not) inner).operand : new Not(inner);
+        }
+
+        @Override
+        Predicate<Task> compile() {
+            return operand.compile().negate();
+        }
+    }
+
+    /** Conditions joined by {@code and} or by {@code or} */
+    private static class Group extends Node {
+        private final boolean isAnd;
+        private final List<Node> operands;
+
+        Group(boolean isAnd, List<Node> operands) {
+            this.isAnd = isAnd;
+            this.operands = operands;
+        }
+
+        @Override
+        int cost() {
+            int cost = 0;
+            for (Node operand : operands) {
+                cost += operand.cost();
+            }
+            return cost;
+        }
+
+        @Override
+        Node simplify() {
+            ArrayList<Node> flat = new ArrayList<>();
+            for (Node operand : operands) {
+                Node simple = operand.simplify();
+                if (simple instanceof Group && ((Group) simple).isAnd == isAnd) {
+                    flat.addAll(((Group) simple).operands);
+                } else {
+                    flat.add(simple);
+                }
+            }
+            // Conditions have no side effects, so running the cheapest first only changes how soon a group decides
+            flat.sort(Comparator.comparingInt(Node::cost));
+            return new Group(isAnd, flat);
+        }
+
+        @Override
+        Predicate<Task> compile() {
+            List<Predicate<Task>> parts = new ArrayList<>(operands.size());
+            for (Node operand : operands) {
+                parts.add(operand.compile());
+            }
+            if (isAnd) {
+                return task -> {
+                    for (Predicate<Task> part : parts) {
+                        if (!part.test(task)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+            }
+            return task -> {
+                for (Predicate<Task> part : parts) {
+                    if (part.test(task)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package parser;
+
+import java.util.BitSet;
+import java.util.List;
+
+import exceptions.AmadeusException;
+import tasks.Task;
+
+/**
+ * The tasks chosen by the argument of a mark, unmark or delete command.
+ * An argument is either a list of task numbers and ranges separated by commas, such as {@code 3,7,12-20},
+ * or {@code all}, optionally followed by {@code done} or {@code undone} to keep only tasks in that state.
+ *
+ * <p>A selection is parsed without looking at the task list, and checked against it by {@link #resolve},
+ * so that a command can reject the whole selection before changing any task.
+ */
+public class TaskSelection {
+
+    /** Keyword selecting every task */
+    public static final String ALL_KEYWORD = "all";
+
+    private static final String DONE_KEYWORD = "done";
+    private static final String UNDONE_KEYWORD = "undone";
+
+    /** States a selection of all tasks can be narrowed to */
+    private enum StatusFilter {
+        ANY, DONE, UNDONE
+    }
+
+    /** First and last task numbers of each range, in pairs, or null if all tasks are selected */
+    private final int[] ranges;
+
+    /** State of the tasks kept when all tasks are selected */
+    private final StatusFilter filter;
+
+    private TaskSelection(int[] ranges, StatusFilter filter) {
+        this.ranges = ranges;
+        this.filter = filter;
+    }
+
+    /**
+     * Returns whether the argument of a mark, unmark or delete command selects tasks by a list, a range or
+     * {@code all}, rather than naming a single task number.
+     *
+     * @param spec Argument of the command.
+     * @return True if the argument should be parsed as a selection.
+     */
+    public static boolean isBulk(String spec) {
+        return spec.indexOf(',') >= 0 || spec.indexOf('-') >= 0 || spec.startsWith(ALL_KEYWORD);
+    }
+
+    /**
+     * Parses the argument of a mark, unmark or delete command.
+     *
+     * @param spec Argument, such as {@code 4}, {@code 3,7,12-20} or {@code all done}.
+     * @return The parsed selection.
+     * @throws AmadeusException If the argument is not a valid selection.
+     */
+    public static TaskSelection parse(String spec) throws AmadeusException {
+        String trimmed = spec.trim();
+        if (trimmed.startsWith(ALL_KEYWORD)) {
+            return parseAll(trimmed);
+        }
+
+        int count = 1;
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (trimmed.charAt(i) == ',') {
+                count++;
+            }
+        }
+        int[] ranges = new int[count * 2];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = trimmed.indexOf(',', start);
+            if (end < 0) {
+                end = trimmed.length();
+            }
+            parseRange(trimmed, start, end, ranges, i * 2);
+            start = end + 1;
+        }
+        return new TaskSelection(ranges, StatusFilter.ANY);
+    }
+
+    private static TaskSelection parseAll(String spec) throws AmadeusException {
+        String status = spec.substring(ALL_KEYWORD.length()).trim();
+        if (spec.length() > ALL_KEYWORD.length() && spec.charAt(ALL_KEYWORD.length()) != ' ') {
+            throw invalid();
+        }
+        switch (status) {
+        case "":
+            return new TaskSelection(null, StatusFilter.ANY);
+        case DONE_KEYWORD:
+            return new TaskSelection(null, StatusFilter.DONE);
+        case UNDONE_KEYWORD:
+            return new TaskSelection(null, StatusFilter.UNDONE);
+        default:
+            throw invalid();
+        }
+    }
+
+    /**
+     * Parses a task number or a range {@code <a>-<b>} spanning the given part of the argument.
+     */
+    private static void parseRange(String spec, int start, int end, int[] ranges, int offset)
+            throws AmadeusException {
+        int dash = spec.indexOf('-', start);
+        boolean isRange = dash >= 0 && dash < end;
+        int first = parseNumber(spec, start, isRange ? dash : end);
+        int last = isRange ? parseNumber(spec, dash + 1, end) : first;
+        if (last < first) {
+            throw new AmadeusException("Please give ranges of task numbers from low to high, such as 12-20.");
+        }
+        ranges[offset] = first;
+        ranges[offset + 1] = last;
+    }
+
+    private static int parseNumber(String spec, int start, int end) throws AmadeusException {
+        while (start < end && spec.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && spec.charAt(end - 1) == ' ') {
+            end--;
+        }
+        try {
+            return Integer.parseInt(spec, start, end, 10);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private static AmadeusException invalid() {
+        return new AmadeusException("Please enter valid task numbers, such as 4, 3,7,12-20 or all done.");
+    }
+
+    /**
+     * Returns the positions of the selected tasks, checking that every task number given exists.
+     *
+     * @param tasks Current list of tasks.
+     * @return Zero-based indexes of the selected tasks in increasing order, without duplicates.
+     * @throws AmadeusException If a task number given is not in the list.
+     */
+    public int[] resolve(List<Task> tasks) throws AmadeusException {
+        int size = tasks.size();
+        BitSet selected = new BitSet(size);
+        if (ranges != null) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                int first = ranges[i];
+                int last = ranges[i + 1];
+                if (first < 1 || last > size) {
+                    throw new AmadeusException(String.format("Sorry, task number %d does not exist.",
+                            first < 1 ? first : last));
+                }
+                selected.set(first - 1, last);
+            }
+            return selected.stream().toArray();
+        }
+
+        if (filter == StatusFilter.ANY) {
+            selected.set(0, size);
+        } else {
+            int index = 0;
+            for (Task task : tasks) {
+                if (task.isDone() == (filter == StatusFilter.DONE)) {
+                    selected.set(index);
+                }
+                index++;
+            }
+        }
+        return selected.stream().toArray();
+    }
+}
@@ -0,0 +1,398 @@
+package tasks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A list of tasks stored column by column in primitive arrays instead of as individual objects.
+ * Each task takes a done bit, a type byte, two epoch-day dates and an offset and length into a shared
+ * arena of UTF-8 description bytes.
+ *
+ * <p>{@link #get} returns a short-lived {@link ToDo}, {@link Deadline} or {@link Event} view of a row.
+ * Marking a view as done or not done writes through to the row. Like the iterators of other lists, a view
+ * fails fast: once the list has been structurally modified since the view was created, marking it throws
+ * {@link ConcurrentModificationException} and leaves both the view and the row unchanged.
+ * The list can be passed to {@link TaskList#TaskList(java.util.List)} in place of an {@code ArrayList},
+ * as {@link TaskBacking#COLUMNAR} does.
+ */
+public class ColumnarTaskStore extends AbstractList<Task> implements RandomAccess {
+
+    private static final byte TYPE_TODO = 0;
+    private static final byte TYPE_DEADLINE = 1;
+    private static final byte TYPE_EVENT = 2;
+
+    /** Date value stored when a task has no date, or an invalid one */
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    /** Arena size from which unused description bytes are reclaimed once they make up half of the arena */
+    private static final int MIN_COMPACTION_SIZE = 1 << 20;
+
+    private int size;
+    private long[] doneBits;
+    private byte[] types;
+    private int[] firstDates;
+    private int[] secondDates;
+    private int[] descriptionStarts;
+    private int[] descriptionLengths;
+
+    /** Description bytes of all rows, in no particular order */
+    private byte[] arena;
+
+    /** Number of bytes used in the arena */
+    private int arenaSize;
+
+    /** Number of arena bytes no longer referenced by any row */
+    private int garbageSize;
+
+    /**
+     * Constructs an empty store.
+     */
+    public ColumnarTaskStore() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty store with room for the given number of tasks.
+     *
+     * @param capacity Initial number of rows.
+     */
+    public ColumnarTaskStore(int capacity) {
+        int rows = Math.max(capacity, 1);
+        doneBits = new long[(rows + 63) >>> 6];
+        types = new byte[rows];
+        firstDates = new int[rows];
+        secondDates = new int[rows];
+        descriptionStarts = new int[rows];
+        descriptionLengths = new int[rows];
+        arena = new byte[Math.max(rows * 16, 64)];
+    }
+
+    /**
+     * Constructs a store holding the given tasks, in order.
+     *
+     * @param tasks Tasks to copy into the store.
+     */
+    public ColumnarTaskStore(Collection<? extends Task> tasks) {
+        this(tasks.size());
+        addAll(tasks);
+        trimToSize();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        String description = new String(arena, descriptionStarts[index], descriptionLengths[index],
+                StandardCharsets.UTF_8);
+        boolean isDone = isDone(index);
+        switch (types[index]) {
+        case TYPE_DEADLINE:
+            return new DeadlineView(this, index, description, isDone, toDate(firstDates[index]));
+        case TYPE_EVENT:
+            return new EventView(this, index, description, isDone, toDate(firstDates[index]),
+                    toDate(secondDates[index]));
+        default:
+            return new ToDoView(this, index, description, isDone);
+        }
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        garbageSize += descriptionLengths[index];
+        writeRow(index, task);
+        compactIfNeeded();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        int moved = size - index;
+        System.arraycopy(types, index, types, index + 1, moved);
+        System.arraycopy(firstDates, index, firstDates, index + 1, moved);
+        System.arraycopy(secondDates, index, secondDates, index + 1, moved);
+        System.arraycopy(descriptionStarts, index, descriptionStarts, index + 1, moved);
+        System.arraycopy(descriptionLengths, index, descriptionLengths, index + 1, moved);
+        if (moved > 0) {
+            shiftBitsUp(index);
+        }
+        size++;
+        writeRow(index, task);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        garbageSize += descriptionLengths[index];
+        int moved = size - index - 1;
+        System.arraycopy(types, index + 1, types, index, moved);
+        System.arraycopy(firstDates, index + 1, firstDates, index, moved);
+        System.arraycopy(secondDates, index + 1, secondDates, index, moved);
+        System.arraycopy(descriptionStarts, index + 1, descriptionStarts, index, moved);
+        System.arraycopy(descriptionLengths, index + 1, descriptionLengths, index, moved);
+        shiftBitsDown(index);
+        size--;
+        modCount++;
+        compactIfNeeded();
+        return removed;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the columns and the description arena.
+     *
+     * @return Footprint in bytes.
+     */
+    public long getFootprintBytes() {
+        return (long) doneBits.length * Long.BYTES
+                + types.length
+                + (long) firstDates.length * Integer.BYTES
+                + (long) secondDates.length * Integer.BYTES
+                + (long) descriptionStarts.length * Integer.BYTES
+                + (long) descriptionLengths.length * Integer.BYTES
+                + arena.length;
+    }
+
+    /**
+     * Shrinks the columns and the description arena to what the current rows use.
+     */
+    public void trimToSize() {
+        compact();
+        int capacity = Math.max(size, 1);
+        doneBits = Arrays.copyOf(doneBits, (capacity + 63) >>> 6);
+        types = Arrays.copyOf(types, capacity);
+        firstDates = Arrays.copyOf(firstDates, capacity);
+        secondDates = Arrays.copyOf(secondDates, capacity);
+        descriptionStarts = Arrays.copyOf(descriptionStarts, capacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+    }
+
+    private void writeRow(int index, Task task) {
+        byte type = TYPE_TODO;
+        int first = NO_DATE;
+        int second = NO_DATE;
+        if (task instanceof Deadline) {
+            type = TYPE_DEADLINE;
+            first = toEpochDay(((Deadline) task).getBy());
+        } else if (task instanceof Event) {
+            type = TYPE_EVENT;
+            first = toEpochDay(((Event) task).getFrom());
+            second = toEpochDay(((Event) task).getTo());
+        }
+        types[index] = type;
+        firstDates[index] = first;
+        secondDates[index] = second;
+        setDone(index, task.isDone());
+
+        byte[] bytes = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (arenaSize + bytes.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + bytes.length));
+        }
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        descriptionStarts[index] = arenaSize;
+        descriptionLengths[index] = bytes.length;
+        arenaSize += bytes.length;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= types.length) {
+            return;
+        }
+        int capacity = Math.max(rows, types.length * 2);
+        doneBits = Arrays.copyOf(doneBits, (capacity + 63) >>> 6);
+        types = Arrays.copyOf(types, capacity);
+        firstDates = Arrays.copyOf(firstDates, capacity);
+        secondDates = Arrays.copyOf(secondDates, capacity);
+        descriptionStarts = Arrays.copyOf(descriptionStarts, capacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+    }
+
+    /**
+     * Rewrites the arena without unreferenced bytes once they make up half of a large arena.
+     */
+    private void compactIfNeeded() {
+        if (arenaSize >= MIN_COMPACTION_SIZE && garbageSize * 2 >= arenaSize) {
+            compact();
+        }
+    }
+
+    /**
+     * Copies the descriptions of the current rows into an arena of exactly the size they need.
+     */
+    private void compact() {
+        byte[] compacted = new byte[Math.max(arenaSize - garbageSize, 64)];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(arena, descriptionStarts[i], compacted, position, descriptionLengths[i]);
+            descriptionStarts[i] = position;
+            position += descriptionLengths[i];
+        }
+        arena = compacted;
+        arenaSize = position;
+        garbageSize = 0;
+    }
+
+    private boolean isDone(int index) {
+        return (doneBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void setDone(int index, boolean isDone) {
+        if (isDone) {
+            doneBits[index >>> 6] |= 1L << index;
+        } else {
+            doneBits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Moves the done bits at and after the given index one position up, leaving the bit at the index clear.
+     */
+    private void shiftBitsUp(int index) {
+        int firstWord = index >>> 6;
+        int lastWord = size >>> 6;
+        for (int w = lastWord; w > firstWord; w--) {
+            doneBits[w] = (doneBits[w] << 1) | (doneBits[w - 1] >>> 63);
+        }
+        long word = doneBits[firstWord];
+        long lowMask = (1L << index) - 1;
+        doneBits[firstWord] = (word & lowMask) | ((word & ~lowMask) << 1);
+    }
+
+    /**
+     * Moves the done bits after the given index one position down, overwriting the bit at the index.
+     */
+    private void shiftBitsDown(int index) {
+        int firstWord = index >>> 6;
+        int lastWord = (size - 1) >>> 6;
+        long word = doneBits[firstWord];
+        long lowMask = (1L << index) - 1;
+        long high = (word >>> 1) & ~lowMask;
+        doneBits[firstWord] = (word & lowMask) | high;
+        for (int w = firstWord; w < lastWord; w++) {
+            doneBits[w] |= doneBits[w + 1] << 63;
+            doneBits[w + 1] >>>= 1;
+        }
+        setDone(size - 1, false);
+    }
+
+    /**
+     * Updates the done bit of a row on behalf of a view.
+     *
+     * @throws ConcurrentModificationException If the list changed structurally since the view was created,
+     *     so that the row of the view may have moved.
+     */
+    private void writeBack(int index, int expectedModCount, boolean isDone) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        setDone(index, isDone);
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    private static LocalDate toDate(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * View of a ToDo row.
+     */
+    private static class ToDoView extends ToDo {
+        private final ColumnarTaskStore store;
+        private final int index;
+        private final int modCount;
+
+        ToDoView(ColumnarTaskStore store, int index, String description, boolean isDone) {
+            super(description);
+            this.store = store;
+            this.index = index;
+            this.modCount = store.modCount;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public void markAsDone() {
+            store.writeBack(index, modCount, true);
+            super.markAsDone();
+        }
+
+        @Override
+        public void markAsUndone() {
+            store.writeBack(index, modCount, false);
+            super.markAsUndone();
+        }
+    }
+
+    /**
+     * View of a Deadline row.
+     */
+    private static class DeadlineView extends Deadline {
+        private final ColumnarTaskStore store;
+        private final int index;
+        private final int modCount;
+
+        DeadlineView(ColumnarTaskStore store, int index, String description, boolean isDone, LocalDate by) {
+            super(description, by);
+            this.store = store;
+            this.index = index;
+            this.modCount = store.modCount;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public void markAsDone() {
+            store.writeBack(index, modCount, true);
+            super.markAsDone();
+        }
+
+        @Override
+        public void markAsUndone() {
+            store.writeBack(index, modCount, false);
+            super.markAsUndone();
+        }
+    }
+
+    /**
+     * View of an Event row.
+     */
+    private static class EventView extends Event {
+        private final ColumnarTaskStore store;
+        private final int index;
+        private final int modCount;
+
+        EventView(ColumnarTaskStore store, int index, String description, boolean isDone,
+                LocalDate from, LocalDate to) {
+            super(description, from, to);
+            this.store = store;
+            this.index = index;
+            this.modCount = store.modCount;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public void markAsDone() {
+            store.writeBack(index, modCount, true);
+            super.markAsDone();
+        }
+
+        @Override
+        public void markAsUndone() {
+            store.writeBack(index, modCount, false);
+            super.markAsUndone();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package tasks;
+
+import java.time.LocalDate;
+import java.util.stream.LongStream;
+
+/**
+ * Index of the dates of deadlines and events, answering date-range queries without scanning the list.
+ * A deadline is stored as the single-day interval of its due date and an event as the interval it spans.
+ * Tasks with missing dates are not indexed.
+ */
+class DateIndex {
+
+    /** Due dates of deadlines */
+    private final IntervalTree deadlines = new IntervalTree();
+
+    /** Spans of events */
+    private final IntervalTree events = new IntervalTree();
+
+    /**
+     * Indexes the dates of a task.
+     *
+     * @param id Id of the task.
+     * @param task Task to index.
+     */
+    void add(long id, Task task) {
+        if (task instanceof Deadline) {
+            LocalDate by = ((Deadline) task).getBy();
+            if (by != null) {
+                deadlines.add(by.toEpochDay(), by.toEpochDay(), id);
+            }
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            if (event.getFrom() != null && event.getTo() != null) {
+                long from = event.getFrom().toEpochDay();
+                events.add(from, Math.max(from, event.getTo().toEpochDay()), id);
+            }
+        }
+    }
+
+    /**
+     * Removes the dates of a task from the index.
+     *
+     * @param id Id of the task.
+     * @param task Task that was indexed.
+     */
+    void remove(long id, Task task) {
+        if (task instanceof Deadline) {
+            LocalDate by = ((Deadline) task).getBy();
+            if (by != null) {
+                deadlines.remove(by.toEpochDay(), id);
+            }
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            if (event.getFrom() != null && event.getTo() != null) {
+                events.remove(event.getFrom().toEpochDay(), id);
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of deadlines due on or before the given day.
+     *
+     * @param day Last day, as an epoch day.
+     * @return Sorted ids.
+     */
+    long[] dueBy(long day) {
+        LongStream.Builder ids = LongStream.builder();
+        deadlines.findOverlapping(Long.MIN_VALUE, day, ids);
+        return ids.build().sorted().toArray();
+    }
+
+    /**
+     * Returns the ids of deadlines due within the given range and events overlapping it.
+     *
+     * @param from First day of the range, as an epoch day.
+     * @param to Last day of the range, as an epoch day.
+     * @return Sorted ids.
+     */
+    long[] overlapping(long from, long to) {
+        LongStream.Builder ids = LongStream.builder();
+        deadlines.findOverlapping(from, to, ids);
+        events.findOverlapping(from, to, ids);
+        return ids.build().sorted().toArray();
+    }
+}
@@ -41,6 +41,15 @@ public class Deadline extends Task {
         this.by = by;
     }
 
+    /**
+     * Returns the deadline date.
+     *
+     * @return Due date, or null if invalid.
+     */
+    public LocalDate getBy() {
+        return by;
+    }
+
     /**
      * Returns the raw string representation of the deadline date.
      *
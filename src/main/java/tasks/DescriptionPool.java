@@ -0,0 +1,37 @@
+package tasks;
+
+/**
+ * A bounded pool for sharing identical task descriptions.
+ * The pool is a fixed-size, direct-mapped table: a description hashes to a single slot and replaces whatever
+ * was there before, so memory stays bounded no matter how many distinct descriptions pass through it,
+ * while descriptions that keep recurring end up sharing one instance.
+ *
+ * <p>Concurrent use is safe; races only cause a description to miss the pool, never a wrong result.
+ */
+public final class DescriptionPool {
+
+    /** Number of slots in the pool; a power of two */
+    private static final int CAPACITY = 1 << 16;
+
+    private static final String[] SLOTS = new String[CAPACITY];
+
+    private DescriptionPool() {
+    }
+
+    /**
+     * Returns a shared instance equal to the given description.
+     *
+     * @param description Description to intern.
+     * @return Pooled description equal to the argument.
+     */
+    public static String intern(String description) {
+        int hash = description.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+        String pooled = SLOTS[slot];
+        if (pooled != null && pooled.equals(description)) {
+            return pooled;
+        }
+        SLOTS[slot] = description;
+        return description;
+    }
+}
@@ -52,6 +52,24 @@ public class Event extends Task {
         this.to = to;
     }
 
+    /**
+     * Returns the start date of the event.
+     *
+     * @return Start date, or null if invalid.
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the end date of the event.
+     *
+     * @return End date, or null if invalid.
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
     /**
      * Returns the raw string representation of the start date.
      *
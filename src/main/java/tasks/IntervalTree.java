@@ -0,0 +1,135 @@
+package tasks;
+
+import java.util.stream.LongStream;
+
+/**
+ * A set of closed day intervals, each tagged with a task id, supporting overlap queries.
+ * Implemented as a treap ordered by interval start and augmented with the largest end in each subtree,
+ * so insertion and removal take O(log n) and an overlap query O(log n + k) expected time.
+ */
+class IntervalTree {
+
+    /**
+     * A node holding one interval.
+     */
+    private static class Node extends TreapNode<Node> {
+        final long start;
+        final long end;
+        final long id;
+        private long maxEnd;
+
+        Node(long start, long end, long id) {
+            super(priorityOf(id));
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+
+        @Override
+        void update() {
+            long max = end;
+            if (left != null) {
+                max = Math.max(max, left.maxEnd);
+            }
+            if (right != null) {
+                max = Math.max(max, right.maxEnd);
+            }
+            maxEnd = max;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Returns the number of intervals in the tree.
+     *
+     * @return Number of intervals.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds an interval.
+     *
+     * @param start First day of the interval, as an epoch day.
+     * @param end Last day of the interval, as an epoch day.
+     * @param id Id of the task the interval belongs to.
+     */
+    void add(long start, long end, long id) {
+        assert start <= end : "Interval should not end before it starts";
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given start belonging to the given task, if present.
+     *
+     * @param start First day of the interval.
+     * @param id Id of the task the interval belongs to.
+     */
+    void remove(long start, long id) {
+        root = delete(root, start, id);
+    }
+
+    /**
+     * Collects the ids of all intervals overlapping the given range.
+     *
+     * @param from First day of the range.
+     * @param to Last day of the range.
+     * @param result Builder receiving the ids, in no particular order.
+     */
+    void findOverlapping(long from, long to, LongStream.Builder result) {
+        collect(root, from, to, result);
+    }
+
+    private static void collect(Node node, long from, long to, LongStream.Builder result) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start > to) {
+            return;
+        }
+        if (node.end >= from) {
+            result.add(node.id);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return TreapNode.rebalance(node);
+    }
+
+    private Node delete(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            size--;
+            return TreapNode.merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+}
@@ -0,0 +1,88 @@
+package tasks;
+
+import java.util.Arrays;
+
+/**
+ * A sorted list of task ids without duplicates, stored in a growable primitive array.
+ * Ids are assigned in list order, so appending a new task is an amortized O(1) append.
+ */
+class PostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    /**
+     * Returns the number of ids in the list.
+     *
+     * @return Number of ids.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id at the given position.
+     *
+     * @param index Position in the list.
+     * @return Id at that position.
+     */
+    long get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Adds an id, keeping the list sorted.
+     *
+     * @param id Id to add.
+     */
+    void add(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        if (size == 0 || ids[size - 1] < id) {
+            ids[size++] = id;
+            return;
+        }
+
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+
+    /**
+     * Removes an id if present.
+     *
+     * @param id Id to remove.
+     */
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Returns whether the list contains the given id.
+     *
+     * @param id Id to look for.
+     * @return True if the id is present.
+     */
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Returns the ids as a sorted array.
+     *
+     * @return Copy of the ids.
+     */
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
@@ -0,0 +1,36 @@
+package tasks;
+
+/**
+ * A treap node that records the number of nodes in its subtree, so that nodes can be found by rank.
+ *
+ * @param <N> Type of the nodes of the tree.
+ */
+abstract class SizedTreapNode<N extends SizedTreapNode<N>> extends TreapNode<N> {
+
+    /** Number of nodes in the subtree of this node, itself included */
+    protected int size = 1;
+
+    /**
+     * Constructs a node without children.
+     *
+     * @param priority Heap priority, normally from {@link #priorityOf}.
+     */
+    protected SizedTreapNode(long priority) {
+        super(priority);
+    }
+
+    @Override
+    void update() {
+        size = sizeOf(left) + sizeOf(right) + 1;
+    }
+
+    /**
+     * Returns the number of nodes in a subtree.
+     *
+     * @param node Root of the subtree, or null.
+     * @return Size of the subtree, 0 if it is empty.
+     */
+    static int sizeOf(SizedTreapNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
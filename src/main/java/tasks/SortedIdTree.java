@@ -0,0 +1,139 @@
+package tasks;
+
+/**
+ * A set of task ids ordered by a sort key and then by id, supporting lookups by rank.
+ * Implemented as a treap augmented with subtree sizes, so insertion, removal and finding the id at a rank take
+ * O(log n) expected time, and listing k consecutive ids from a rank takes O(log n + k).
+ */
+class SortedIdTree {
+
+    /**
+     * A node holding one id with its key.
+     */
+    private static class Node extends SizedTreapNode<Node> {
+        final long key;
+        final long id;
+
+        Node(long key, long id) {
+            super(priorityOf(id));
+            this.key = key;
+            this.id = id;
+        }
+    }
+
+    private Node root;
+
+    /**
+     * Returns the number of ids in the tree.
+     *
+     * @return Number of ids.
+     */
+    int size() {
+        return SizedTreapNode.sizeOf(root);
+    }
+
+    /**
+     * Adds an id with its key.
+     *
+     * @param key Sort key of the task.
+     * @param id Id of the task.
+     */
+    void add(long key, long id) {
+        root = insert(root, new Node(key, id));
+    }
+
+    /**
+     * Removes an id added with the given key, if present.
+     *
+     * @param key Sort key the task was added with.
+     * @param id Id of the task.
+     * @return True if the id was removed.
+     */
+    boolean remove(long key, long id) {
+        int before = size();
+        root = delete(root, key, id);
+        return size() < before;
+    }
+
+    /**
+     * Returns the number of ids whose key is smaller than the given key, which is the rank of the first id
+     * with that key or a larger one.
+     *
+     * @param key Key to look up.
+     * @return Rank of the first id with a key of at least {@code key}.
+     */
+    int rankOf(long key) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.key < key) {
+                rank += SizedTreapNode.sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the ids at the given ranks, in order.
+     *
+     * @param from Rank of the first id, from 0.
+     * @param to Rank after the last id, at most {@link #size()}.
+     * @return Ids from rank {@code from} to rank {@code to - 1}.
+     */
+    long[] idsBetween(int from, int to) {
+        long[] ids = new long[Math.max(0, to - from)];
+        collect(root, from, to, 0, ids);
+        return ids;
+    }
+
+    /**
+     * Stores the ids of a subtree whose ranks fall in {@code [from, to)}, given the rank of its first id.
+     */
+    private static void collect(Node node, int from, int to, int offset, long[] ids) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        collect(node.left, from, to, offset, ids);
+        int rank = offset + SizedTreapNode.sizeOf(node.left);
+        if (rank >= from && rank < to) {
+            ids[rank - from] = node.id;
+        }
+        collect(node.right, from, to, rank + 1, ids);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.key, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return TreapNode.rebalance(node);
+    }
+
+    private static Node delete(Node node, long key, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(key, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, key, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, key, id);
+        } else {
+            return TreapNode.merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int compare(long key, long id, Node node) {
+        int cmp = Long.compare(key, node.key);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+}
@@ -0,0 +1,48 @@
+package tasks;
+
+import java.util.List;
+
+/**
+ * Lists that can hold the tasks of a {@link TaskList}, each suited to a different use.
+ * All of them work with the same commands and user interface.
+ */
+public enum TaskBacking {
+    /** The list loaded from storage, normally an array list */
+    ARRAY,
+    /** A {@link ColumnarTaskStore}, which keeps large lists in far less memory */
+    COLUMNAR,
+    /** A {@link TaskTree}, which inserts and deletes anywhere in a large list in logarithmic time */
+    TREE;
+
+    /**
+     * Returns a list of this kind holding the given tasks, in order.
+     *
+     * @param tasks Tasks loaded from storage.
+     * @return The given list for {@link #ARRAY}, otherwise a new list holding its tasks.
+     */
+    public List<Task> holding(List<Task> tasks) {
+        switch (this) {
+        case COLUMNAR:
+            return new ColumnarTaskStore(tasks);
+        case TREE:
+            return new TaskTree(tasks);
+        default:
+            return tasks;
+        }
+    }
+
+    /**
+     * Returns the backing with the given name, in any case.
+     *
+     * @param name Name of the backing, such as {@code columnar}.
+     * @return The backing, or null if there is none with that name.
+     */
+    public static TaskBacking fromName(String name) {
+        for (TaskBacking backing : values()) {
+            if (backing.name().equalsIgnoreCase(name)) {
+                return backing;
+            }
+        }
+        return null;
+    }
+}
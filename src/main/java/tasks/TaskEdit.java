@@ -0,0 +1,105 @@
+package tasks;
+
+/**
+ * A change to a task list made by one command, such as the inverse of a command kept for undoing it.
+ * An edit inserts tasks, removes tasks or sets the completion status of tasks, at a set of positions
+ * given in increasing order.
+ */
+public class TaskEdit {
+
+    /** Kinds of change an edit makes */
+    public enum Kind {
+        /** Inserts tasks so that they end up at the given positions */
+        INSERT,
+        /** Removes the tasks at the given positions */
+        REMOVE,
+        /** Marks the tasks at the given positions as done or not done */
+        SET_STATUS
+    }
+
+    private final Kind kind;
+    private final int[] indexes;
+    private final Task[] tasks;
+    private final boolean[] statuses;
+
+    private TaskEdit(Kind kind, int[] indexes, Task[] tasks, boolean[] statuses) {
+        this.kind = kind;
+        this.indexes = indexes;
+        this.tasks = tasks;
+        this.statuses = statuses;
+    }
+
+    /**
+     * Creates an edit inserting tasks.
+     *
+     * @param indexes Positions of the tasks in the list once all of them are inserted, in increasing order.
+     * @param tasks Tasks to insert, in the same order.
+     * @return The edit.
+     */
+    public static TaskEdit insert(int[] indexes, Task[] tasks) {
+        assert indexes.length == tasks.length : "Each inserted task should have a position";
+        return new TaskEdit(Kind.INSERT, indexes, tasks, null);
+    }
+
+    /**
+     * Creates an edit removing tasks.
+     *
+     * @param indexes Positions of the tasks to remove, in increasing order.
+     * @return The edit.
+     */
+    public static TaskEdit remove(int[] indexes) {
+        return new TaskEdit(Kind.REMOVE, indexes, null, null);
+    }
+
+    /**
+     * Creates an edit setting the completion status of tasks.
+     *
+     * @param indexes Positions of the tasks to update, in increasing order.
+     * @param statuses True for each task to mark as done, false for each to mark as not done.
+     * @return The edit.
+     */
+    public static TaskEdit setStatus(int[] indexes, boolean[] statuses) {
+        assert indexes.length == statuses.length : "Each updated task should have a status";
+        return new TaskEdit(Kind.SET_STATUS, indexes, null, statuses);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the number of tasks the edit changes.
+     *
+     * @return Number of positions in the edit.
+     */
+    public int size() {
+        return indexes.length;
+    }
+
+    /**
+     * Returns the positions the edit applies to.
+     *
+     * @return Positions in increasing order; not to be modified.
+     */
+    public int[] getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * Returns the tasks inserted by an insert edit.
+     *
+     * @return Inserted tasks, or null for other edits; not to be modified.
+     */
+    public Task[] getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the statuses set by a status edit.
+     *
+     * @return Statuses, or null for other edits; not to be modified.
+     */
+    public boolean[] getStatuses() {
+        return statuses;
+    }
+}
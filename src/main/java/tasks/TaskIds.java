@@ -0,0 +1,163 @@
+package tasks;
+
+/**
+ * The ids of the tasks in a list, in list order, as used by the search indexes.
+ * Ids are handed out in increasing order as tasks are appended, so the position of a task is the number of
+ * live ids below its own. The live ids are counted in a Fenwick tree, which finds the id at a position and the
+ * position of an id in O(log n) time, so removing a task does not shift the ids of the tasks after it.
+ */
+class TaskIds {
+
+    /** Fenwick tree of live ids: entry i counts the live ids in (i - lowbit(i), i], shifted by one */
+    private int[] counts;
+
+    /** Number of ids handed out so far, live or removed */
+    private int idCount;
+
+    /** Number of live ids */
+    private int size;
+
+    /**
+     * Constructs the ids of a list of the given size, numbered from 0.
+     *
+     * @param size Number of tasks in the list.
+     */
+    TaskIds(int size) {
+        counts = new int[Math.max(16, size) + 1];
+        for (int i = 1; i < counts.length; i++) {
+            if (i <= size) {
+                counts[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < counts.length) {
+                counts[parent] += counts[i];
+            }
+        }
+        idCount = size;
+        this.size = size;
+    }
+
+    /**
+     * Returns whether most ids handed out have been removed, so that rebuilding would save space and time.
+     *
+     * @return True if removed ids outnumber live ones.
+     */
+    boolean isSparse() {
+        return idCount > 1024 && idCount - size > size;
+    }
+
+    /**
+     * Hands out the id of a task appended to the list.
+     *
+     * @return New id, larger than every id handed out before.
+     */
+    long append() {
+        if (idCount + 1 == counts.length) {
+            grow();
+        }
+        int id = idCount++;
+        add(id, 1);
+        size++;
+        return id;
+    }
+
+    /**
+     * Hands out the id of a task inserted at the given position, reusing the removed id just above the task
+     * before it. Such an id is free whenever a task was removed between its neighbours since the ids were
+     * assigned, as when a removal is undone.
+     *
+     * @param index Position of the inserted task.
+     * @return New id, between the ids of its neighbours, or -1 if no id is free between them.
+     */
+    long insertAt(int index) {
+        if (index == size) {
+            return append();
+        }
+        int id = index == 0 ? 0 : (int) idAt(index - 1) + 1;
+        if (id >= idAt(index)) {
+            return -1;
+        }
+        add(id, 1);
+        size++;
+        return id;
+    }
+
+    /**
+     * Removes the id of the task at the given position.
+     *
+     * @param index Position of the removed task.
+     * @return Id of the removed task.
+     */
+    long removeAt(int index) {
+        int id = (int) idAt(index);
+        add(id, -1);
+        size--;
+        return id;
+    }
+
+    /**
+     * Returns the current position of the task with the given id.
+     *
+     * @param id Id of a task in the list.
+     * @return Index of the task.
+     */
+    int positionOf(long id) {
+        int count = 0;
+        for (int i = (int) id + 1; i > 0; i -= i & -i) {
+            count += counts[i];
+        }
+        assert count > 0 : "Indexed task should be in the list";
+        return count - 1;
+    }
+
+    /**
+     * Returns the id of the task at the given position, found by descending the Fenwick tree.
+     *
+     * @param index Position of a task in the list.
+     * @return Id of the task.
+     */
+    long idAt(int index) {
+        assert index >= 0 && index < size : "Position should be in the list";
+        int pos = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(counts.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < counts.length && counts[next] < remaining) {
+                pos = next;
+                remaining -= counts[next];
+            }
+        }
+        return pos;
+    }
+
+    private void add(int id, int delta) {
+        for (int i = id + 1; i < counts.length; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+
+    /**
+     * Doubles the number of ids the tree can count. Every id counted so far is below the old capacity,
+     * so each new entry counts the live ids in the part of its range that reaches back below it.
+     */
+    private void grow() {
+        int oldLength = counts.length;
+        int[] grown = new int[(oldLength - 1) * 2 + 1];
+        System.arraycopy(counts, 0, grown, 0, oldLength);
+        counts = grown;
+        for (int i = oldLength; i < counts.length; i++) {
+            int low = i - (i & -i);
+            if (low < oldLength - 1) {
+                counts[i] = prefixCount(oldLength - 1) - prefixCount(low);
+            }
+        }
+    }
+
+    private int prefixCount(int end) {
+        int count = 0;
+        for (int i = end; i > 0; i -= i & -i) {
+            count += counts[i];
+        }
+        return count;
+    }
+}
@@ -1,14 +1,64 @@
 package tasks;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
 /**
  * Represents a list of tasks and provides methods to manipulate them.
+ * Searches are answered from text and date indexes that are built on first use and kept up to date afterwards.
+ * Once most of the tasks indexed have been removed, the indexes are dropped and rebuilt by the next search.
+ * Tasks can also be listed in a {@link TaskOrder} from a sorted view that, once built, is kept in order
+ * the same way.
+ * Commands record how to reverse each change they make, so that the latest changes can be undone and redone.
+ *
+ * <p>A TaskList can be shared between threads: every method takes the read or write lock of the list.
+ * Callers that combine several calls into one operation, such as checking an index before removing
+ * the task at it, should hold {@link #readLock()} or {@link #writeLock()} across the calls.
  */
 public class TaskList {
 
+    /** Number of tasks from which {@link #filter} tests the tasks in parallel */
+    public static final int PARALLEL_FILTER_THRESHOLD = 65_536;
+
+    /** Number of tasks tested by each parallel subtask of {@link #filter} */
+    private static final int FILTER_CHUNK_SIZE = 16_384;
+
     /** Internal list storing the tasks */
-    private final ArrayList<Task> tasks;
+    private final List<Task> tasks;
+
+    /** Lock shared by readers and taken exclusively by changes to the list */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Guards the lazy creation of the indexes, which can happen under the read lock */
+    private final Object indexMonitor = new Object();
+
+    /** Text index over the task descriptions, or null until the first search */
+    private volatile TextIndex textIndex;
+
+    /** Date index over deadlines and events, or null until the first date query */
+    private volatile DateIndex dateIndex;
+
+    /** Sorted views of the tasks by {@link TaskOrder}, each null until first listed in that order */
+    private volatile SortedIdTree[] sortedViews = new SortedIdTree[TaskOrder.values().length];
+
+    /** Ids of the tasks in list order, or null until the first index is built */
+    private TaskIds ids;
+
+    /** Edits undoing and redoing the latest changes made by commands */
+    private final UndoHistory history = new UndoHistory();
 
     /**
      * Constructs an empty TaskList.
@@ -22,16 +72,35 @@ public class TaskList {
      *
      * @param tasks List of tasks to initialize the TaskList.
      */
-    public TaskList(ArrayList<Task> tasks) {
+    public TaskList(List<Task> tasks) {
         this.tasks = tasks;
     }
 
+    /**
+     * Returns the lock to hold while reading the list across several calls.
+     *
+     * @return Read lock of the list.
+     */
+    public Lock readLock() {
+        return lock.readLock();
+    }
+
+    /**
+     * Returns the lock to hold while changing the list across several calls.
+     *
+     * @return Write lock of the list.
+     */
+    public Lock writeLock() {
+        return lock.writeLock();
+    }
+
     /**
      * Returns the internal list of tasks.
+     * The list is not guarded by the locks of this TaskList; hold one of them while using it from several threads.
      *
-     * @return ArrayList of tasks.
+     * @return List of tasks.
      */
-    public ArrayList<Task> getTasks() {
+    public List<Task> getTasks() {
         return tasks;
     }
 
@@ -41,7 +110,12 @@ public class TaskList {
      * @return Number of tasks.
      */
     public int size() {
-        return tasks.size();
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -51,7 +125,12 @@ public class TaskList {
      * @return Task at the specified index.
      */
     public Task get(int index) {
-        return tasks.get(index);
+        lock.readLock().lock();
+        try {
+            return tasks.get(index);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -60,7 +139,21 @@ public class TaskList {
      * @param task Task to add.
      */
     public void add(Task task) {
+        lock.writeLock().lock();
+        try {
+            addUnlocked(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addUnlocked(Task task) {
         tasks.add(task);
+        if (ids == null) {
+            return;
+        }
+
+        indexTask(ids.append(), task);
     }
 
     /**
@@ -70,16 +163,591 @@ public class TaskList {
      * @return The removed task.
      */
     public Task remove(int index) {
-        return tasks.remove(index);
+        lock.writeLock().lock();
+        try {
+            return removeUnlocked(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Task removeUnlocked(int index) {
+        Task removed = tasks.remove(index);
+        if (ids == null) {
+            return removed;
+        }
+
+        long id = ids.removeAt(index);
+        if (ids.isSparse()) {
+            dropIndexes();
+            return removed;
+        }
+        unindexTask(id, removed);
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the given indexes in one pass.
+     * A random-access list is compacted in a single sweep over the tasks after the first removed one;
+     * other lists, such as a {@link TaskTree}, remove each task from the highest index down.
+     *
+     * @param indexes Indexes of the tasks to remove, in increasing order and without duplicates.
+     * @return Number of tasks removed.
+     */
+    public int removeAll(int[] indexes) {
+        lock.writeLock().lock();
+        try {
+            removeAllUnlocked(indexes);
+            return indexes.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeAllUnlocked(int[] indexes) {
+        if (indexes.length == 0) {
+            return;
+        }
+        if (ids != null) {
+            removeFromIndexes(indexes);
+        }
+        if (!(tasks instanceof RandomAccess)) {
+            for (int i = indexes.length - 1; i >= 0; i--) {
+                tasks.remove(indexes[i]);
+            }
+            return;
+        }
+
+        int size = tasks.size();
+        int write = indexes[0];
+        int next = 0;
+        for (int read = indexes[0]; read < size; read++) {
+            if (next < indexes.length && indexes[next] == read) {
+                next++;
+            } else {
+                tasks.set(write++, tasks.get(read));
+            }
+        }
+        // Truncating from the end keeps each removal from shifting the tasks after it
+        for (int i = size - 1; i >= write; i--) {
+            tasks.remove(i);
+        }
+    }
+
+    private void removeFromIndexes(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            Task removed = tasks.get(indexes[i]);
+            unindexTask(ids.removeAt(indexes[i]), removed);
+        }
+        if (ids.isSparse()) {
+            dropIndexes();
+        }
+    }
+
+    /**
+     * Inserts tasks so that they end up at the given indexes, the inverse of {@link #removeAll}.
+     * A random-access list is grown once and the tasks after the first inserted one are moved up in a single
+     * sweep from the end; other lists insert each task from the lowest index up.
+     */
+    private void insertAllUnlocked(int[] indexes, Task[] inserted) {
+        if (indexes.length == 0) {
+            return;
+        }
+        if (!(tasks instanceof RandomAccess)) {
+            for (int i = 0; i < indexes.length; i++) {
+                tasks.add(indexes[i], inserted[i]);
+            }
+        } else {
+            int read = tasks.size() - 1;
+            for (Task task : inserted) {
+                // Placeholders, overwritten by the sweep below
+                tasks.add(task);
+            }
+            int write = tasks.size() - 1;
+            for (int i = indexes.length - 1; i >= 0; i--) {
+                while (write > indexes[i]) {
+                    tasks.set(write--, tasks.get(read--));
+                }
+                tasks.set(write--, inserted[i]);
+            }
+        }
+        if (ids != null) {
+            insertIntoIndexes(indexes, inserted);
+        }
+    }
+
+    private void insertIntoIndexes(int[] indexes, Task[] inserted) {
+        for (int i = 0; i < indexes.length; i++) {
+            long id = ids.insertAt(indexes[i]);
+            if (id < 0) {
+                // No id is free between the neighbours, so the indexes are rebuilt by the next search
+                dropIndexes();
+                return;
+            }
+            indexTask(id, inserted[i]);
+        }
+    }
+
+    private void indexTask(long id, Task task) {
+        if (textIndex != null) {
+            textIndex.add(id, task.getDescription());
+        }
+        if (dateIndex != null) {
+            dateIndex.add(id, task);
+        }
+        SortedIdTree[] views = sortedViews;
+        for (TaskOrder order : TaskOrder.values()) {
+            SortedIdTree view = views[order.ordinal()];
+            if (view != null) {
+                view.add(order.keyOf(task), id);
+            }
+        }
+    }
+
+    private void unindexTask(long id, Task task) {
+        if (textIndex != null) {
+            textIndex.remove(id, task.getDescription());
+        }
+        if (dateIndex != null) {
+            dateIndex.remove(id, task);
+        }
+        SortedIdTree[] views = sortedViews;
+        for (TaskOrder order : TaskOrder.values()) {
+            SortedIdTree view = views[order.ordinal()];
+            if (view != null) {
+                view.remove(order.keyOf(task), id);
+            }
+        }
+    }
+
+    /**
+     * Drops every index, to be rebuilt by the next search that needs it.
+     * Readers are excluded by the write lock, so the indexes can be dropped without the index monitor.
+     */
+    private void dropIndexes() {
+        ids = null;
+        textIndex = null;
+        dateIndex = null;
+        sortedViews = new SortedIdTree[TaskOrder.values().length];
+    }
+
+    /**
+     * Applies an edit to the list and returns the edit that reverses it.
+     */
+    private TaskEdit applyUnlocked(TaskEdit edit) {
+        int[] indexes = edit.getIndexes();
+        switch (edit.getKind()) {
+        case INSERT:
+            insertAllUnlocked(indexes, edit.getTasks());
+            return TaskEdit.remove(indexes);
+        case REMOVE:
+            Task[] removed = new Task[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                removed[i] = tasks.get(indexes[i]);
+            }
+            removeAllUnlocked(indexes);
+            return TaskEdit.insert(indexes, removed);
+        default:
+            boolean[] statuses = edit.getStatuses();
+            boolean[] previous = new boolean[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                previous[i] = setStatusUnlocked(indexes[i], statuses[i]);
+            }
+            return TaskEdit.setStatus(indexes, previous);
+        }
+    }
+
+    /**
+     * Marks the task at the specified index as done or not done, keeping the view by status in order.
+     *
+     * @param index Index of the task.
+     * @param isDone Whether the task is done.
+     * @return Whether the task was done before.
+     */
+    public boolean setStatus(int index, boolean isDone) {
+        lock.writeLock().lock();
+        try {
+            return setStatusUnlocked(index, isDone);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean setStatusUnlocked(int index, boolean isDone) {
+        Task task = tasks.get(index);
+        boolean wasDone = task.isDone();
+        if (wasDone == isDone) {
+            return wasDone;
+        }
+        SortedIdTree view = sortedViews[TaskOrder.DONE.ordinal()];
+        if (view != null) {
+            view.remove(TaskOrder.DONE.keyOf(task), ids.idAt(index));
+        }
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsUndone();
+        }
+        if (view != null) {
+            view.add(TaskOrder.DONE.keyOf(task), ids.idAt(index));
+        }
+        return wasDone;
+    }
+
+    /**
+     * Records how to undo a change just made to the list by a command.
+     * Changes undone before it can no longer be redone.
+     *
+     * @param inverse Edit that reverses the change.
+     */
+    public void recordUndo(TaskEdit inverse) {
+        lock.writeLock().lock();
+        try {
+            history.record(inverse);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Undoes the latest change recorded by {@link #recordUndo} that has not been undone yet.
+     *
+     * @return The edit applied to the list, or null if there is nothing to undo.
+     */
+    public TaskEdit undo() {
+        lock.writeLock().lock();
+        try {
+            TaskEdit edit = history.popUndo();
+            if (edit != null) {
+                history.pushRedo(applyUnlocked(edit));
+            }
+            return edit;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Redoes the latest change undone by {@link #undo}, unless another change has been recorded since.
+     *
+     * @return The edit applied to the list, or null if there is nothing to redo.
+     */
+    public TaskEdit redo() {
+        lock.writeLock().lock();
+        try {
+            TaskEdit edit = history.popRedo();
+            if (edit != null) {
+                history.pushUndo(applyUnlocked(edit));
+            }
+            return edit;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
      * Finds and returns tasks that contain the specified keyword in their description.
+     * Candidates are looked up in the text index and then checked, so the result is the same
+     * as a full scan, in list order.
      *
      * @param keyword Keyword to search for.
      * @return List of matching tasks.
      */
     public ArrayList<Task> findTasks(String keyword) {
+        lock.readLock().lock();
+        try {
+            buildTextIndex();
+            long[] candidates = textIndex.candidates(keyword);
+            if (candidates == null) {
+                return scanTasks(keyword);
+            }
+
+            ArrayList<Task> matching = new ArrayList<>();
+            for (long id : candidates) {
+                Task t = tasks.get(ids.positionOf(id));
+                if (t.getDescription().contains(keyword)) {
+                    matching.add(t);
+                }
+            }
+            return matching;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the tasks matching a predicate, in list order.
+     * Lists of at least {@link #PARALLEL_FILTER_THRESHOLD} tasks that support fast random access are split into
+     * chunks tested on the fork-join pool when it has more than one thread; the chunks are joined back in order.
+     * The predicate may be called from several threads at once and must not change the tasks.
+     *
+     * @param predicate Condition the returned tasks satisfy.
+     * @return Matching tasks in list order.
+     */
+    public ArrayList<Task> filter(Predicate<Task> predicate) {
+        lock.readLock().lock();
+        try {
+            int size = tasks.size();
+            if (size < PARALLEL_FILTER_THRESHOLD || !(tasks instanceof RandomAccess)
+                    || ForkJoinPool.getCommonPoolParallelism() < 2) {
+                ArrayList<Task> matching = new ArrayList<>();
+                for (Task task : tasks) {
+                    if (predicate.test(task)) {
+                        matching.add(task);
+                    }
+                }
+                return matching;
+            }
+            return filterInParallel(predicate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tests the tasks of a random-access list in chunks on the fork-join pool, joining the chunks in order.
+     * Called with the read lock held, which keeps writers out until the workers finish.
+     */
+    ArrayList<Task> filterInParallel(Predicate<Task> predicate) {
+        int chunkCount = (tasks.size() + FILTER_CHUNK_SIZE - 1) / FILTER_CHUNK_SIZE;
+        List<List<Task>> chunks = new ArrayList<>(Collections.nCopies(chunkCount, null));
+        ForkJoinPool.commonPool().invoke(new FilterChunks(tasks, predicate, chunks, 0, chunkCount));
+        int total = 0;
+        for (List<Task> chunk : chunks) {
+            total += chunk.size();
+        }
+        ArrayList<Task> matching = new ArrayList<>(total);
+        for (List<Task> chunk : chunks) {
+            matching.addAll(chunk);
+        }
+        return matching;
+    }
+
+    /**
+     * Finds the tasks closest to a query, tolerating typos and ignoring case, best match first.
+     * Every word of the query must be close to a word of the description, as scored by
+     * {@link TextIndex#fuzzyTokens}; a task scores the mean of its best score for each query word.
+     *
+     * <p>The query word matching the fewest tasks drives the search and the other words are checked against
+     * the descriptions of its tasks. The close tokens of the driving word are visited from the best score down,
+     * each in list order, and a token is left as soon as none of its remaining tasks could outrank the matches
+     * found so far, even with the best score for every other word. A single-word query thus visits at most
+     * {@code limit} tasks per close token, so its cost does not grow with the list.
+     *
+     * @param query Words to search for.
+     * @param limit Largest number of matches to return.
+     * @return Best matches by decreasing score, ties in list order.
+     */
+    public List<TaskMatch> findFuzzy(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            ArrayList<TaskMatch> result = new ArrayList<>();
+            buildTextIndex();
+            ArrayList<HashMap<String, Double>> wordMatches = new ArrayList<>();
+            for (String word : query.toLowerCase(Locale.ROOT).split(" ")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                HashMap<String, Double> matches = textIndex.fuzzyTokens(word);
+                if (matches.isEmpty()) {
+                    return result;
+                }
+                wordMatches.add(matches);
+            }
+            if (wordMatches.isEmpty() || limit <= 0) {
+                return result;
+            }
+
+            HashMap<String, Double> driver = wordMatches.get(0);
+            long driverCount = Long.MAX_VALUE;
+            for (HashMap<String, Double> matches : wordMatches) {
+                long count = 0;
+                for (String token : matches.keySet()) {
+                    count += textIndex.postingOf(token).size();
+                }
+                if (count < driverCount) {
+                    driver = matches;
+                    driverCount = count;
+                }
+            }
+            ArrayList<Map.Entry<String, Double>> driverTokens = new ArrayList<>(driver.entrySet());
+            driverTokens.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+
+            double bestOthers = 0;
+            for (HashMap<String, Double> matches : wordMatches) {
+                if (matches != driver) {
+                    bestOthers += Collections.max(matches.values());
+                }
+            }
+
+            // Worst match on top, so that it is the one dropped once the queue holds more than the limit
+            PriorityQueue<ScoredId> best = new PriorityQueue<>();
+            HashSet<Long> seen = new HashSet<>();
+            for (Map.Entry<String, Double> entry : driverTokens) {
+                PostingList posting = textIndex.postingOf(entry.getKey());
+                double bound = (bestOthers + entry.getValue()) / wordMatches.size();
+                if (best.size() == limit && bound < best.peek().score) {
+                    break;
+                }
+                for (int i = 0; i < posting.size(); i++) {
+                    long id = posting.get(i);
+                    if (best.size() == limit && best.peek().compareTo(new ScoredId(id, bound)) > 0) {
+                        // Later tasks of the token have larger ids, so they lose ties too
+                        break;
+                    }
+                    // Tokens are visited from the best score down, so a task first seen has its best score
+                    if (!seen.add(id)) {
+                        continue;
+                    }
+                    double score = scoreOtherWords(tasks.get(ids.positionOf(id)), wordMatches, driver);
+                    if (score < 0) {
+                        continue;
+                    }
+                    score = (score + entry.getValue()) / wordMatches.size();
+                    best.add(new ScoredId(id, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            while (!best.isEmpty()) {
+                ScoredId match = best.poll();
+                result.add(new TaskMatch(tasks.get(ids.positionOf(match.id)), match.score));
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds up the best score of each query word other than the driving one over the words of a task.
+     *
+     * @return Sum of the scores, or -1 if some query word is not close to any word of the task.
+     */
+    private static double scoreOtherWords(Task task, List<HashMap<String, Double>> wordMatches,
+            HashMap<String, Double> driver) {
+        if (wordMatches.size() == 1) {
+            return 0;
+        }
+        String[] tokens = task.getDescription().split(" ");
+        double total = 0;
+        for (HashMap<String, Double> matches : wordMatches) {
+            if (matches == driver) {
+                continue;
+            }
+            double wordBest = -1;
+            for (String token : tokens) {
+                Double score = matches.get(token);
+                if (score != null && score > wordBest) {
+                    wordBest = score;
+                }
+            }
+            if (wordBest < 0) {
+                return -1;
+            }
+            total += wordBest;
+        }
+        return total;
+    }
+
+    /**
+     * Finds deadlines due on or before the given date.
+     *
+     * @param date Last due date to include.
+     * @return Matching deadlines in list order.
+     */
+    public ArrayList<Task> findDueBy(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            buildDateIndex();
+            return tasksOf(dateIndex.dueBy(date.toEpochDay()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds deadlines due within the given range of dates and events overlapping it.
+     *
+     * @param from First date of the range.
+     * @param to Last date of the range.
+     * @return Matching tasks in list order.
+     */
+    public ArrayList<Task> findBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            buildDateIndex();
+            return tasksOf(dateIndex.overlapping(from.toEpochDay(), to.toEpochDay()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the positions of the tasks at the given ranks of a sorted view of the list.
+     * The view is built on first use and kept in order by later changes, so a page of it is found
+     * without sorting the list.
+     *
+     * @param order Order of the view.
+     * @param from Rank of the first task, from 0.
+     * @param to Rank after the last task; ranks past the end of the list are left out.
+     * @return Indexes in the list of the tasks from rank {@code from} to rank {@code to - 1}.
+     */
+    public int[] sortedPositions(TaskOrder order, int from, int to) {
+        lock.readLock().lock();
+        try {
+            SortedIdTree view = buildSortedView(order);
+            int end = Math.min(to, view.size());
+            long[] sortedIds = view.idsBetween(Math.min(from, end), end);
+            int[] positions = new int[sortedIds.length];
+            for (int i = 0; i < sortedIds.length; i++) {
+                positions[i] = ids.positionOf(sortedIds[i]);
+            }
+            return positions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds deadlines due and events starting within the given range of dates that are not done yet.
+     * They are read from the view of the list sorted by due date, so the time taken depends on the number
+     * of tasks in the range rather than the size of the list.
+     *
+     * @param from First date of the range.
+     * @param to Last date of the range.
+     * @return Matching tasks, earliest first and in list order among tasks on the same date.
+     */
+    public ArrayList<Task> findUpcoming(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            SortedIdTree view = buildSortedView(TaskOrder.DUE);
+            long[] dueIds = view.idsBetween(view.rankOf(from.toEpochDay()), view.rankOf(to.toEpochDay() + 1));
+            ArrayList<Task> result = new ArrayList<>();
+            for (long id : dueIds) {
+                Task task = tasks.get(ids.positionOf(id));
+                if (!task.isDone()) {
+                    result.add(task);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private ArrayList<Task> tasksOf(long[] sortedIds) {
+        ArrayList<Task> result = new ArrayList<>(sortedIds.length);
+        for (long id : sortedIds) {
+            result.add(tasks.get(ids.positionOf(id)));
+        }
+        return result;
+    }
+
+    private ArrayList<Task> scanTasks(String keyword) {
         ArrayList<Task> matching = new ArrayList<>();
         for (Task t : tasks) {
             if (t.getDescription().contains(keyword)) {
@@ -88,5 +756,149 @@ public class TaskList {
         }
         return matching;
     }
-}
 
+    /**
+     * Builds the text index over the current tasks if it does not exist yet.
+     * Concurrent readers may race to build it, so the index is only published once complete.
+     */
+    private void buildTextIndex() {
+        if (textIndex != null) {
+            return;
+        }
+        synchronized (indexMonitor) {
+            if (textIndex != null) {
+                return;
+            }
+            assignIds();
+            TextIndex index = new TextIndex();
+            int i = 0;
+            for (Task task : tasks) {
+                index.add(ids.idAt(i++), task.getDescription());
+            }
+            textIndex = index;
+        }
+    }
+
+    /**
+     * Builds the date index over the current tasks if it does not exist yet.
+     * Concurrent readers may race to build it, so the index is only published once complete.
+     */
+    private void buildDateIndex() {
+        if (dateIndex != null) {
+            return;
+        }
+        synchronized (indexMonitor) {
+            if (dateIndex != null) {
+                return;
+            }
+            assignIds();
+            DateIndex index = new DateIndex();
+            int i = 0;
+            for (Task task : tasks) {
+                index.add(ids.idAt(i++), task);
+            }
+            dateIndex = index;
+        }
+    }
+
+    /**
+     * Builds the view of the current tasks in the given order if it does not exist yet.
+     * Concurrent readers may race to build it, so the views are only published once the view is complete.
+     */
+    private SortedIdTree buildSortedView(TaskOrder order) {
+        SortedIdTree view = sortedViews[order.ordinal()];
+        if (view != null) {
+            return view;
+        }
+        synchronized (indexMonitor) {
+            view = sortedViews[order.ordinal()];
+            if (view != null) {
+                return view;
+            }
+            assignIds();
+            view = new SortedIdTree();
+            int i = 0;
+            for (Task task : tasks) {
+                view.add(order.keyOf(task), ids.idAt(i++));
+            }
+            SortedIdTree[] views = sortedViews.clone();
+            views[order.ordinal()] = view;
+            sortedViews = views;
+            return view;
+        }
+    }
+
+    /**
+     * Assigns increasing ids to the current tasks if none are assigned yet.
+     * Called with the index monitor held.
+     */
+    private void assignIds() {
+        if (ids != null) {
+            return;
+        }
+        ids = new TaskIds(tasks.size());
+    }
+
+    /**
+     * Id of a task found by a fuzzy search with its score, ordered from the worst match to the best.
+     * Among equal scores, a task later in the list is the worse match.
+     */
+    private static class ScoredId implements Comparable<ScoredId> {
+        private final long id;
+        private final double score;
+
+        ScoredId(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(ScoredId other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(other.id, id);
+        }
+    }
+
+    /**
+     * Tests the tasks of a range of chunks against a predicate, splitting the range in halves until it is one chunk.
+     * Each chunk stores its matching tasks in its own slot, so that they can be joined in list order.
+     * Fork-join tasks are serializable, but these only ever run within the process that creates them.
+     */
+    @SuppressWarnings("serial")
+    private static class FilterChunks extends RecursiveAction {
+        private final List<Task> tasks;
+        private final Predicate<Task> predicate;
+        private final List<List<Task>> chunks;
+        private final int from;
+        private final int to;
+
+        FilterChunks(List<Task> tasks, Predicate<Task> predicate, List<List<Task>> chunks, int from, int to) {
+            this.tasks = tasks;
+            this.predicate = predicate;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new FilterChunks(tasks, predicate, chunks, from, mid),
+                        new FilterChunks(tasks, predicate, chunks, mid, to));
+                return;
+            }
+
+            int start = from * FILTER_CHUNK_SIZE;
+            int end = Math.min(start + FILTER_CHUNK_SIZE, tasks.size());
+            ArrayList<Task> matching = new ArrayList<>();
+            for (int i = start; i < end; i++) {
+                Task task = tasks.get(i);
+                if (predicate.test(task)) {
+                    matching.add(task);
+                }
+            }
+            chunks.set(from, matching);
+        }
+    }
+}
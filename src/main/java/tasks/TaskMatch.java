@@ -0,0 +1,29 @@
+package tasks;
+
+/**
+ * A task found by a fuzzy search, with how closely it matched the query.
+ */
+public class TaskMatch {
+
+    private final Task task;
+    private final double score;
+
+    /**
+     * Constructs a match.
+     *
+     * @param task Matching task.
+     * @param score Closeness of the match, from 0 to 1 for an exact match of every word.
+     */
+    public TaskMatch(Task task, double score) {
+        this.task = task;
+        this.score = score;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
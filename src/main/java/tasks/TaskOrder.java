@@ -0,0 +1,39 @@
+package tasks;
+
+import java.time.LocalDate;
+
+/**
+ * Orders in which a task list can be viewed, each kept as a sorted index by {@link TaskList}.
+ * Tasks with equal keys stay in list order.
+ */
+public enum TaskOrder {
+    /** Deadlines by due date and events by start date, mixed, then todos and tasks without a valid date */
+    DUE,
+    /** Todos, then deadlines, then events */
+    TYPE,
+    /** Tasks not done, then tasks done */
+    DONE;
+
+    /**
+     * Returns the sort key of a task in this order.
+     *
+     * @param task Task to sort.
+     * @return Key, smaller for tasks that come first.
+     */
+    long keyOf(Task task) {
+        switch (this) {
+        case DUE:
+            LocalDate date = null;
+            if (task instanceof Deadline) {
+                date = ((Deadline) task).getBy();
+            } else if (task instanceof Event) {
+                date = ((Event) task).getFrom();
+            }
+            return date == null ? Long.MAX_VALUE : date.toEpochDay();
+        case TYPE:
+            return task.getType().ordinal();
+        default:
+            return task.isDone() ? 1 : 0;
+        }
+    }
+}
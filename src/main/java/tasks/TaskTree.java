@@ -0,0 +1,266 @@
+package tasks;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A list of tasks kept in a balanced tree ordered by position instead of in an array.
+ * Implemented as a treap in which each node records the size of its subtree, so getting, setting,
+ * inserting and removing the task at any index take O(log n) expected time, where an {@code ArrayList}
+ * shifts every later task on insertion and removal.
+ *
+ * <p>Iteration walks the tree in order and takes O(1) amortized time per task.
+ * The list can be passed to {@link TaskList#TaskList(java.util.List)} in place of an {@code ArrayList},
+ * as {@link TaskBacking#TREE} does, and is the default for scripts, which often delete throughout the list.
+ */
+public class TaskTree extends AbstractList<Task> {
+
+    /**
+     * A node holding one task.
+     */
+    private static class Node extends SizedTreapNode<Node> {
+        private Task task;
+
+        Node(Task task, long priority) {
+            super(priority);
+            this.task = task;
+        }
+    }
+
+    private Node root;
+
+    /** Number of nodes created so far, scrambled into the priority of the next node */
+    private long nodeCount;
+
+    /**
+     * Constructs an empty tree.
+     */
+    public TaskTree() {
+    }
+
+    /**
+     * Constructs a tree holding the given tasks, in order, in O(n) time.
+     *
+     * @param tasks Tasks to copy into the tree.
+     */
+    public TaskTree(Collection<? extends Task> tasks) {
+        // Builds the treap left to right, keeping the right spine of the tree on a stack
+        ArrayDeque<Node> spine = new ArrayDeque<>();
+        for (Task task : tasks) {
+            Node node = newNode(task);
+            Node last = null;
+            while (!spine.isEmpty() && spine.peek().priority < node.priority) {
+                last = spine.pop();
+            }
+            node.left = last;
+            if (!spine.isEmpty()) {
+                spine.peek().right = node;
+            }
+            spine.push(node);
+        }
+        root = spine.peekLast();
+        updateSizes(root);
+    }
+
+    @Override
+    public int size() {
+        return SizedTreapNode.sizeOf(root);
+    }
+
+    @Override
+    public Task get(int index) {
+        return nodeAt(index).task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Node node = nodeAt(index);
+        Task previous = node.task;
+        node.task = task;
+        return previous;
+    }
+
+    @Override
+    public boolean add(Task task) {
+        root = TreapNode.merge(root, newNode(task));
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node[] parts = split(root, index);
+        root = TreapNode.merge(TreapNode.merge(parts[0], newNode(task)), parts[1]);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = nodeAt(index).task;
+        root = delete(root, index);
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new InOrderIterator();
+    }
+
+    private Node newNode(Task task) {
+        return new Node(task, TreapNode.priorityOf(nodeCount++));
+    }
+
+    private Node nodeAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = SizedTreapNode.sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private static Node delete(Node node, int index) {
+        int leftSize = SizedTreapNode.sizeOf(node.left);
+        if (index == leftSize) {
+            return TreapNode.merge(node.left, node.right);
+        }
+        if (index < leftSize) {
+            node.left = delete(node.left, index);
+        } else {
+            node.right = delete(node.right, index - leftSize - 1);
+        }
+        node.size--;
+        return node;
+    }
+
+    /**
+     * Splits a subtree into its first {@code count} nodes and the rest.
+     *
+     * @return The two subtrees, either of which may be null.
+     */
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        int leftSize = SizedTreapNode.sizeOf(node.left);
+        if (count <= leftSize) {
+            Node[] parts = split(node.left, count);
+            node.left = parts[1];
+            node.update();
+            parts[1] = node;
+            return parts;
+        }
+        Node[] parts = split(node.right, count - leftSize - 1);
+        node.right = parts[0];
+        node.update();
+        parts[0] = node;
+        return parts;
+    }
+
+    private static int updateSizes(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        node.size = updateSizes(node.left) + updateSizes(node.right) + 1;
+        return node.size;
+    }
+
+    /**
+     * Iterator walking the tree in order, keeping the nodes whose right subtrees are still to be visited on a stack.
+     * Removing through the iterator removes by index and then finds the path to the next node again.
+     */
+    private class InOrderIterator implements Iterator<Task> {
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+        private int nextIndex;
+        private int lastIndex = -1;
+        private int expectedModCount = modCount;
+
+        InOrderIterator() {
+            pushLeft(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Task next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node node = stack.pop();
+            pushLeft(node.right);
+            lastIndex = nextIndex++;
+            return node.task;
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            TaskTree.this.remove(lastIndex);
+            expectedModCount = modCount;
+            nextIndex = lastIndex;
+            lastIndex = -1;
+            seek(nextIndex);
+        }
+
+        private void pushLeft(Node node) {
+            for (; node != null; node = node.left) {
+                stack.push(node);
+            }
+        }
+
+        /**
+         * Rebuilds the stack so that the next node returned is the one at the given index.
+         */
+        private void seek(int index) {
+            stack.clear();
+            Node node = root;
+            while (node != null) {
+                int leftSize = SizedTreapNode.sizeOf(node.left);
+                if (index < leftSize) {
+                    stack.push(node);
+                    node = node.left;
+                } else if (index == leftSize) {
+                    stack.push(node);
+                    return;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+    }
+}
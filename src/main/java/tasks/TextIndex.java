@@ -0,0 +1,402 @@
+package tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from the space-separated tokens of task descriptions to the ids of the tasks containing them.
+ * The tokens themselves are indexed by character trigrams, so that query words which are only part of a token
+ * can still be resolved without scanning every task.
+ *
+ * <p>Fuzzy searches look up tokens by the trigrams of their lower-case form instead, padded at both ends so that
+ * short words have trigrams too. That second gram index is built on the first fuzzy search and kept up to date
+ * afterwards. Both gram indexes hold each distinct token once, so looking up a word costs time in proportion
+ * to the vocabulary sharing its trigrams rather than to the number of tasks.
+ */
+class TextIndex {
+
+    /** Length of the character n-grams used to look up partial tokens */
+    private static final int GRAM_LENGTH = 3;
+
+    /** Character added before and after a folded token to form its padded trigrams */
+    private static final char PAD = '\0';
+
+    /** Ids of the tasks containing each token */
+    private final HashMap<String, PostingList> postings = new HashMap<>();
+
+    /** Indexed tokens containing each trigram */
+    private final HashMap<String, Set<String>> tokensByGram = new HashMap<>();
+
+    /** Indexed tokens by the padded trigrams of their lower-case form, or null until the first fuzzy search */
+    private volatile HashMap<String, Set<String>> tokensByFoldedGram;
+
+    /**
+     * Indexes the description of a task.
+     *
+     * @param id Id of the task.
+     * @param description Description of the task.
+     */
+    void add(long id, String description) {
+        for (String token : description.split(" ")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            PostingList posting = postings.get(token);
+            if (posting == null) {
+                posting = new PostingList();
+                postings.put(token, posting);
+                for (String gram : grams(token)) {
+                    tokensByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+                }
+                if (tokensByFoldedGram != null) {
+                    addFoldedGrams(tokensByFoldedGram, token);
+                }
+            }
+            posting.add(id);
+        }
+    }
+
+    /**
+     * Removes the description of a task from the index.
+     *
+     * @param id Id of the task.
+     * @param description Description the task was indexed with.
+     */
+    void remove(long id, String description) {
+        for (String token : description.split(" ")) {
+            PostingList posting = postings.get(token);
+            if (posting == null) {
+                continue;
+            }
+            posting.remove(id);
+            if (posting.size() == 0) {
+                postings.remove(token);
+                for (String gram : grams(token)) {
+                    Set<String> tokens = tokensByGram.get(gram);
+                    tokens.remove(token);
+                    if (tokens.isEmpty()) {
+                        tokensByGram.remove(gram);
+                    }
+                }
+                if (tokensByFoldedGram != null) {
+                    removeFoldedGrams(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of the tasks whose description may contain the query as a substring.
+     * Inner words of the query must be whole tokens, while the first and last words only need to be part of one,
+     * so every matching task is included but some candidates may still need to be checked.
+     *
+     * @param query Text to search for.
+     * @return Sorted candidate ids, or null if the query cannot be answered from the index.
+     */
+    long[] candidates(String query) {
+        String[] words = query.split(" ", -1);
+        long[][] sets = new long[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].isEmpty()) {
+                return null;
+            }
+            boolean isEdge = i == 0 || i == words.length - 1;
+            if (isEdge) {
+                sets[i] = idsOfTokensContaining(words[i]);
+            } else {
+                PostingList posting = postings.get(words[i]);
+                sets[i] = posting == null ? new long[0] : posting.toArray();
+            }
+        }
+
+        Arrays.sort(sets, (a, b) -> Integer.compare(a.length, b.length));
+        long[] result = sets[0];
+        for (int i = 1; i < sets.length && result.length > 0; i++) {
+            result = intersect(result, sets[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids of the tasks having a token that contains the given word.
+     *
+     * @param word Word without spaces.
+     * @return Sorted ids.
+     */
+    private long[] idsOfTokensContaining(String word) {
+        ArrayList<PostingList> matches = new ArrayList<>();
+        int total = 0;
+        for (String token : tokensContaining(word)) {
+            PostingList posting = postings.get(token);
+            matches.add(posting);
+            total += posting.size();
+        }
+
+        long[] ids = new long[total];
+        int size = 0;
+        for (PostingList posting : matches) {
+            for (int i = 0; i < posting.size(); i++) {
+                ids[size++] = posting.get(i);
+            }
+        }
+        if (matches.size() > 1) {
+            Arrays.sort(ids);
+            size = dedupe(ids);
+        }
+        return size == ids.length ? ids : Arrays.copyOf(ids, size);
+    }
+
+    private Set<String> tokensContaining(String word) {
+        if (word.length() < GRAM_LENGTH) {
+            return filterContaining(postings.keySet(), word);
+        }
+
+        Set<String> smallest = null;
+        for (String gram : grams(word)) {
+            Set<String> tokens = tokensByGram.get(gram);
+            if (tokens == null) {
+                return Set.of();
+            }
+            if (smallest == null || tokens.size() < smallest.size()) {
+                smallest = tokens;
+            }
+        }
+        return filterContaining(smallest, word);
+    }
+
+    /**
+     * Returns the ids of the tasks containing the given token.
+     *
+     * @param token Token without spaces, with its case.
+     * @return Sorted ids, or null if no task contains the token; not to be modified.
+     */
+    PostingList postingOf(String token) {
+        return postings.get(token);
+    }
+
+    /**
+     * Finds the indexed tokens close to a lower-case query word and scores them between 0 and 1.
+     * Tokens sharing enough padded trigrams with the word are checked by their edit distance to it, ignoring case:
+     * a token is kept if it contains the word or is within {@link #maxEdits} edits of it, where swapping two
+     * adjacent letters counts as one edit. The score of a token
+     * averages the overlap of its trigrams with the word's and its edit distance relative to the longer of both.
+     *
+     * @param word Lower-case word without spaces.
+     * @return Score of each close token.
+     */
+    HashMap<String, Double> fuzzyTokens(String word) {
+        buildFoldedGrams();
+        Set<String> wordGrams = foldedGrams(word);
+        HashMap<String, Integer> overlaps = countOverlaps(wordGrams);
+
+        // Each edit changes at most four trigrams, a swap of adjacent letters being the worst, so closer tokens
+        // share at least this many
+        int maxEdits = maxEdits(word.length());
+        int minOverlap = Math.max(1, wordGrams.size() - 4 * maxEdits);
+        HashMap<String, Integer> candidates = overlaps;
+        if (maxEdits > 0 && wordGrams.size() <= 4 * maxEdits) {
+            // A short word may share no trigram with a token that has two of its letters swapped,
+            // so the words with two adjacent letters swapped are looked up as well
+            candidates = new HashMap<>(overlaps);
+            for (int i = 0; i + 1 < word.length(); i++) {
+                if (word.charAt(i) != word.charAt(i + 1)) {
+                    char[] letters = word.toCharArray();
+                    letters[i] = word.charAt(i + 1);
+                    letters[i + 1] = word.charAt(i);
+                    String swapped = new String(letters);
+                    for (Map.Entry<String, Integer> entry : countOverlaps(foldedGrams(swapped)).entrySet()) {
+                        candidates.merge(entry.getKey(), entry.getValue(), Math::max);
+                    }
+                }
+            }
+        }
+
+        HashMap<String, Double> matches = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : candidates.entrySet()) {
+            if (entry.getValue() < minOverlap) {
+                continue;
+            }
+            int overlap = overlaps.getOrDefault(entry.getKey(), 0);
+            String folded = entry.getKey().toLowerCase(Locale.ROOT);
+            boolean isContaining = folded.contains(word);
+            int distance = editDistance(word, folded, isContaining ? folded.length() : maxEdits);
+            if (distance > maxEdits && !isContaining) {
+                continue;
+            }
+            double gramScore = 2.0 * overlap / (wordGrams.size() + foldedGrams(folded).size());
+            double editScore = 1.0 - (double) distance / Math.max(word.length(), folded.length());
+            matches.put(entry.getKey(), (gramScore + editScore) / 2);
+        }
+        return matches;
+    }
+
+    /**
+     * Counts the folded trigrams each indexed token shares with the given ones.
+     *
+     * @param grams Padded trigrams of a lower-case word.
+     * @return Number of shared trigrams of each token sharing at least one.
+     */
+    private HashMap<String, Integer> countOverlaps(Set<String> grams) {
+        HashMap<String, Integer> overlaps = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> tokens = tokensByFoldedGram.get(gram);
+            if (tokens != null) {
+                for (String token : tokens) {
+                    overlaps.merge(token, 1, Integer::sum);
+                }
+            }
+        }
+        return overlaps;
+    }
+
+    /**
+     * Returns the number of edits a token may be away from a query word of the given length to match it.
+     *
+     * @param length Length of the query word.
+     * @return Maximum edit distance.
+     */
+    static int maxEdits(int length) {
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Returns the optimal string alignment distance between two strings, giving up once it is known to exceed
+     * a bound. It is the Levenshtein distance, except that swapping two adjacent characters counts as one edit.
+     *
+     * @param a First string.
+     * @param b Second string.
+     * @param max Largest distance of interest.
+     * @return Distance between the strings, or {@code max + 1} if it is larger than {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            // A swap reaches back two rows, but never below the substitution from the row in between
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    /**
+     * Builds the folded gram index over the current tokens if it does not exist yet.
+     * Changes to the index are excluded by the write lock of the task list, but concurrent searches may race
+     * to build it, so it is only published once complete.
+     */
+    private void buildFoldedGrams() {
+        if (tokensByFoldedGram != null) {
+            return;
+        }
+        synchronized (this) {
+            if (tokensByFoldedGram != null) {
+                return;
+            }
+            HashMap<String, Set<String>> index = new HashMap<>();
+            for (String token : postings.keySet()) {
+                addFoldedGrams(index, token);
+            }
+            tokensByFoldedGram = index;
+        }
+    }
+
+    private static void addFoldedGrams(HashMap<String, Set<String>> index, String token) {
+        for (String gram : foldedGrams(token.toLowerCase(Locale.ROOT))) {
+            index.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+        }
+    }
+
+    private void removeFoldedGrams(String token) {
+        for (String gram : foldedGrams(token.toLowerCase(Locale.ROOT))) {
+            Set<String> tokens = tokensByFoldedGram.get(gram);
+            tokens.remove(token);
+            if (tokens.isEmpty()) {
+                tokensByFoldedGram.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> foldedGrams(String folded) {
+        return grams(PAD + folded + PAD);
+    }
+
+    private static Set<String> filterContaining(Set<String> tokens, String word) {
+        HashSet<String> result = new HashSet<>();
+        for (String token : tokens) {
+            if (token.contains(word)) {
+                result.add(token);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> grams(String token) {
+        HashSet<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Intersects two sorted id arrays by looking up each id of the smaller one in the larger one.
+     *
+     * @param a Sorted ids.
+     * @param b Sorted ids.
+     * @return Sorted ids present in both.
+     */
+    static long[] intersect(long[] a, long[] b) {
+        long[] small = a.length <= b.length ? a : b;
+        long[] large = small == a ? b : a;
+        long[] result = new long[small.length];
+        int size = 0;
+        int from = 0;
+        for (long id : small) {
+            int pos = Arrays.binarySearch(large, from, large.length, id);
+            if (pos >= 0) {
+                result[size++] = id;
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int dedupe(long[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[size - 1] != sorted[i]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,118 @@
+package tasks;
+
+/**
+ * A node of a treap: a binary tree kept in order by its keys or positions and arranged as a heap on
+ * pseudo-random priorities, which keeps it balanced in expectation.
+ * Subclasses hold the key and value of each node and the values augmenting each subtree, such as its size,
+ * which {@link #update} recomputes from the children after they change.
+ * The static operations keep the heap order and call {@link #update} on every node whose children they change.
+ *
+ * @param <N> Type of the nodes of the tree.
+ */
+abstract class TreapNode<N extends TreapNode<N>> {
+
+    /** Heap priority; a node has a higher priority than its children */
+    protected final long priority;
+    protected N left;
+    protected N right;
+
+    /**
+     * Constructs a node without children.
+     *
+     * @param priority Heap priority, normally from {@link #priorityOf}.
+     */
+    protected TreapNode(long priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Recomputes the values augmenting the subtree of this node from its own and its children's.
+     */
+    abstract void update();
+
+    /**
+     * Merges two subtrees, all of whose nodes in the first come before those in the second.
+     *
+     * @param left First subtree, or null.
+     * @param right Second subtree, or null.
+     * @return Root of the merged subtree.
+     */
+    static <N extends TreapNode<N>> N merge(N left, N right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    /**
+     * Lifts the left child of a node above it.
+     *
+     * @param node Node with a left child.
+     * @return New root of the subtree.
+     */
+    static <N extends TreapNode<N>> N rotateRight(N node) {
+        N pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Lifts the right child of a node above it.
+     *
+     * @param node Node with a right child.
+     * @return New root of the subtree.
+     */
+    static <N extends TreapNode<N>> N rotateLeft(N node) {
+        N pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Restores the heap order after a node was inserted into the left or right subtree of another,
+     * and updates the latter.
+     *
+     * @param node Node whose subtree received the new node.
+     * @return New root of the subtree.
+     */
+    static <N extends TreapNode<N>> N rebalance(N node) {
+        if (node.left != null && node.left.priority > node.priority) {
+            return rotateRight(node);
+        }
+        if (node.right != null && node.right.priority > node.priority) {
+            return rotateLeft(node);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Scrambles a seed, such as an id or a counter, into a pseudo-random heap priority with the SplitMix64
+     * finalizer, so that distinct seeds give independent-looking priorities.
+     *
+     * @param seed Seed to scramble.
+     * @return Priority of a node.
+     */
+    static long priorityOf(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
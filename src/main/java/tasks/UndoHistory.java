@@ -0,0 +1,90 @@
+package tasks;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounded stacks of the edits that undo and redo the latest changes to a task list.
+ * Each step keeps only the inverse of the change it undoes, so its size and the time to undo it grow with the
+ * number of tasks that change rather than with the size of the list. Once more than {@link #MAX_STEPS} steps,
+ * or steps changing more than {@link #MAX_TASKS} tasks in total, are kept, the oldest steps are forgotten.
+ */
+class UndoHistory {
+
+    /** Number of changes that can be undone */
+    static final int MAX_STEPS = 100;
+
+    /** Number of changed tasks kept over all steps, bounding the memory held by bulk changes */
+    static final int MAX_TASKS = 1_000_000;
+
+    private final ArrayDeque<TaskEdit> undoSteps = new ArrayDeque<>();
+    private final ArrayDeque<TaskEdit> redoSteps = new ArrayDeque<>();
+
+    /** Number of tasks changed by the edits in both stacks */
+    private long taskCount;
+
+    /**
+     * Records the inverse of a change just made. Changes undone before it can no longer be redone.
+     *
+     * @param inverse Edit undoing the change.
+     */
+    void record(TaskEdit inverse) {
+        for (TaskEdit edit : redoSteps) {
+            taskCount -= edit.size();
+        }
+        redoSteps.clear();
+        pushUndo(inverse);
+    }
+
+    /**
+     * Removes the edit undoing the latest change.
+     *
+     * @return Edit to apply, or null if there is nothing to undo.
+     */
+    TaskEdit popUndo() {
+        TaskEdit edit = undoSteps.pollFirst();
+        if (edit != null) {
+            taskCount -= edit.size();
+        }
+        return edit;
+    }
+
+    /**
+     * Removes the edit redoing the latest undone change.
+     *
+     * @return Edit to apply, or null if there is nothing to redo.
+     */
+    TaskEdit popRedo() {
+        TaskEdit edit = redoSteps.pollFirst();
+        if (edit != null) {
+            taskCount -= edit.size();
+        }
+        return edit;
+    }
+
+    /**
+     * Keeps the edit undoing a change that was just redone, without forgetting the other redo steps.
+     *
+     * @param inverse Edit undoing the change.
+     */
+    void pushUndo(TaskEdit inverse) {
+        undoSteps.push(inverse);
+        taskCount += inverse.size();
+        trim();
+    }
+
+    /**
+     * Keeps the edit redoing a change that was just undone.
+     *
+     * @param inverse Edit redoing the change.
+     */
+    void pushRedo(TaskEdit inverse) {
+        redoSteps.push(inverse);
+        taskCount += inverse.size();
+    }
+
+    private void trim() {
+        while (undoSteps.size() > MAX_STEPS || (taskCount > MAX_TASKS && undoSteps.size() > 1)) {
+            taskCount -= undoSteps.pollLast().size();
+        }
+    }
+}
@@ -1,14 +1,85 @@
 package ui;
 
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 import tasks.Task;
+import tasks.TaskMatch;
 
 /**
  * Handles user interface interactions such as printing messages and errors.
+ * Output goes to a buffered sink, standard output by default, which is only written out when full
+ * or when {@link #flush} is called; callers flush at the end of every command they want the user to see.
  */
 public class Ui {
 
+    /** Size of the buffer in front of standard output */
+    private static final int CONSOLE_BUFFER_SIZE = 1 << 16;
+
+    /** Buffered writer over standard output shared by all console UIs, or null until first needed */
+    private static PrintWriter console;
+
+    /** Sink the output is written to */
+    private final PrintWriter out;
+
+    /**
+     * Constructs a Ui writing to standard output.
+     */
+    public Ui() {
+        this.out = console();
+    }
+
+    /**
+     * Constructs a Ui writing to the given sink.
+     *
+     * @param sink Writer receiving the output; it is not flushed until {@link #flush} is called.
+     */
+    public Ui(Writer sink) {
+        this.out = new PrintWriter(new BufferedWriter(sink));
+    }
+
+    /**
+     * Returns the writer shared by all console UIs, so that their output stays in order.
+     * It writes to the standard output file descriptor directly rather than through {@code System.out},
+     * which flushes on every line.
+     */
+    private static synchronized PrintWriter console() {
+        if (console == null) {
+            console = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(FileDescriptor.out), Charset.defaultCharset()), CONSOLE_BUFFER_SIZE));
+        }
+        return console;
+    }
+
+    /**
+     * Prints an error that is not part of the reply to a command, such as a failed background save,
+     * to standard output after the console output buffered so far, and writes it out at once.
+     *
+     * @param message Error message.
+     */
+    public static void showConsoleError(String message) {
+        PrintWriter writer = console();
+        synchronized (writer) {
+            writer.println(message);
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes out any buffered output.
+     */
+    public void flush() {
+        out.flush();
+    }
+
     /**
      * Prints a message to the console with a horizontal border for formatting.
      *
@@ -19,12 +90,37 @@ public class Ui {
         // Split message into lines for printing
         String[] lines = message.split("\n");
 
-        System.out.println(horizontalLine);
+        out.println(horizontalLine);
         for (String line : lines) {
-            System.out.println("     " + line);
+            out.println("     " + line);
         }
-        System.out.println(horizontalLine);
-        System.out.println();
+        out.println(horizontalLine);
+        out.println();
+    }
+
+    /**
+     * Prints a message given line by line, with the same formatting as {@link #printMessage}.
+     * Lines are printed as they are produced, so long outputs such as task lists are never held in memory at once.
+     *
+     * @param lines Lines of the message.
+     */
+    public void printLines(Iterator<String> lines) {
+        String horizontalLine = "    ____________________________________________________________";
+        out.println(horizontalLine);
+        while (lines.hasNext()) {
+            out.println("     " + lines.next());
+        }
+        out.println(horizontalLine);
+        out.println();
+    }
+
+    /**
+     * Shows a message explaining why a command could not be carried out.
+     *
+     * @param message Error message to be printed.
+     */
+    public void showError(String message) {
+        printMessage(message);
     }
 
     /**
@@ -53,4 +149,25 @@ public class Ui {
         printMessage(sb.toString());
     }
 
+    /**
+     * Prints the tasks found by a fuzzy search with their scores, best match first.
+     *
+     * @param matches Matches to display.
+     */
+    public void showRankedTasks(List<TaskMatch> matches) {
+        if (matches.isEmpty()) {
+            printMessage("No matching tasks found.");
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Here are the closest matching tasks in your list:");
+        for (int i = 0; i < matches.size(); i++) {
+            TaskMatch match = matches.get(i);
+            sb.append("\n").append(i + 1).append(".").append(match.getTask())
+                    .append(String.format(" (score %.2f)", match.getScore()));
+        }
+        printMessage(sb.toString());
+    }
+
 }
@@ -0,0 +1,79 @@
+package command;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import parser.Parser;
+import storage.Storage;
+import tasks.ColumnarTaskStore;
+import tasks.Deadline;
+import tasks.TaskList;
+import tasks.ToDo;
+import ui.Ui;
+
+/**
+ * Tests the responses of commands.
+ */
+public class CommandHandlerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that keywords containing parentheses or quotes are still searched for when they are not valid
+     * queries, and that the reason is shown when no task contains them.
+     */
+    @Test
+    public void testFindKeywordThatLooksLikeQuery() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDo("buy milk (2L)"));
+        tasks.add(new ToDo("say \"hi"));
+        tasks.add(new ToDo("read book"));
+        tasks.setStatus(2, true);
+
+        assertTrue(respond(tasks, "find milk (2L)").contains("1.[T][ ] buy milk (2L)"));
+        assertTrue(respond(tasks, "find say \"hi").contains("1.[T][ ] say \"hi"));
+        assertTrue(respond(tasks, "find \"book\" and done").contains("1.[T][X] read book"));
+        String response = respond(tasks, "find milk (3L)");
+        assertTrue(response.contains("No matching tasks found."), response);
+        assertTrue(response.contains("Sorry, I couldn't understand that query"), response);
+    }
+
+    /**
+     * Tests that commands work unchanged on a task list kept in a columnar store: marks reach the store's rows
+     * and deletions shift them, as seen by find and list.
+     */
+    @Test
+    public void testColumnarBacking() {
+        ColumnarTaskStore store = new ColumnarTaskStore(List.of(new ToDo("borrow book"),
+                new Deadline("return book", "2025-08-27"), new ToDo("read book")));
+        TaskList tasks = new TaskList(store);
+
+        assertTrue(respond(tasks, "mark 2").contains("Nice! I've marked this task as done"));
+        assertTrue(respond(tasks, "delete 1").contains("Now you have 2 tasks in the list."));
+        assertTrue(store.get(0).isDone());
+
+        String found = respond(tasks, "find book");
+        assertTrue(found.contains("1.[D][X] return book (by: Aug 27 2025)"), found);
+        assertTrue(found.contains("2.[T][ ] read book"), found);
+        respond(tasks, "unmark 1");
+        String list = respond(tasks, "list");
+        assertTrue(list.contains("1. [D][ ] return book (by: Aug 27 2025)"), list);
+        assertTrue(list.contains("2. [T][ ] read book"), list);
+    }
+
+    private String respond(TaskList tasks, String input) {
+        StringWriter sink = new StringWriter();
+        Ui ui = new Ui(sink);
+        new CommandHandler(tasks, new Storage(tempDir.resolve("tasks.txt").toString()), ui)
+                .handleCommand(Parser.parse(input));
+        ui.flush();
+        return sink.toString();
+    }
+}
@@ -0,0 +1,155 @@
+package main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests serving one task list to several clients over a local socket.
+ */
+public class AmadeusServerTest {
+
+    private static final int CLIENT_COUNT = 4;
+    private static final int ADDS_PER_CLIENT = 25;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * A client speaking the line protocol of the server.
+     */
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(30_000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Reads one response, up to the line holding a single ".", or returns null if the server closed first.
+         */
+        List<String> readResponse() throws IOException {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.equals(".")) {
+                    return lines;
+                }
+                lines.add(line.startsWith(".") ? line.substring(1) : line);
+            }
+            return null;
+        }
+
+        List<String> send(String command) throws IOException {
+            out.write(command);
+            out.write('\n');
+            out.flush();
+            return readResponse();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Tests that concurrent sessions adding, marking, listing and finding tasks each get one complete response
+     * per command, always see a consistent list, and leave every added task in it.
+     * A client connecting while all sessions are taken is told the server is busy and disconnected.
+     */
+    @Test
+    public void testConcurrentSessions() throws Exception {
+        Amadeus amadeus = new Amadeus(tempDir.resolve("tasks.txt").toString());
+        AmadeusServer server = new AmadeusServer(amadeus, 0, CLIENT_COUNT);
+        Thread serving = new Thread(server::serve);
+        serving.setDaemon(true);
+        serving.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENT_COUNT);
+        CountDownLatch connected = new CountDownLatch(CLIENT_COUNT);
+        CountDownLatch rejected = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENT_COUNT; c++) {
+                int client = c;
+                results.add(pool.submit(() -> {
+                    runClient(server.getPort(), client, connected, rejected);
+                    return null;
+                }));
+            }
+
+            assertTrue(connected.await(30, TimeUnit.SECONDS));
+            try (Client extra = new Client(server.getPort())) {
+                assertEquals(List.of("Sorry, the server is busy. Please try again later."), extra.readResponse());
+                assertNull(extra.readResponse());
+            }
+            assertEquals(1, server.getRejectedCount());
+            rejected.countDown();
+
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+            List<String> list = List.of(amadeus.getResponse("list").split("\n"));
+            assertEquals(CLIENT_COUNT * ADDS_PER_CLIENT + 1, list.size());
+            assertTrue(list.get(1).startsWith("1. [T][X] "), list.get(1));
+        } finally {
+            pool.shutdownNow();
+            server.close();
+        }
+    }
+
+    /**
+     * Adds tasks through one session, checking after each that listing and finding see a consistent list
+     * holding at least the tasks this client added.
+     */
+    private static void runClient(int port, int client, CountDownLatch connected, CountDownLatch rejected)
+            throws Exception {
+        try (Client session = new Client(port)) {
+            assertEquals("Hello! I'm Amadeus.", session.readResponse().get(0));
+            connected.countDown();
+            assertTrue(rejected.await(30, TimeUnit.SECONDS));
+
+            for (int i = 1; i <= ADDS_PER_CLIENT; i++) {
+                List<String> added = session.send("todo client" + client + " item " + i);
+                assertEquals("Got it. I've added this task:", added.get(0));
+                assertEquals(3, added.size());
+                assertTrue(session.send("mark 1").get(0).startsWith("Nice!"));
+
+                List<String> list = session.send("list");
+                assertTrue(list.size() - 1 >= i, "list should hold this client's tasks");
+                for (int line = 1; line < list.size(); line++) {
+                    assertTrue(list.get(line).startsWith(line + ". ["), list.get(line));
+                }
+                List<String> found = session.send("find client" + client);
+                assertEquals(i + 1, found.size(), String.join("\n", found));
+            }
+            assertEquals(List.of("Bye. Hope to see you again soon!"), session.send("bye"));
+        }
+    }
+}
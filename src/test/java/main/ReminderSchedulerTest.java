@@ -0,0 +1,73 @@
+package main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.TaskList;
+import tasks.ToDo;
+
+/**
+ * Tests reminding of tasks that fall due soon.
+ */
+public class ReminderSchedulerTest {
+
+    /**
+     * Tests that a reminder lists the unfinished deadlines and events of the coming days, earliest first,
+     * and follows changes to the list.
+     */
+    @Test
+    public void testReminderFor() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("submit report", "2025-01-11"));
+        tasks.add(new Deadline("pay rent", "2025-01-09"));
+        tasks.add(new ToDo("read book"));
+        tasks.add(new Event("project meeting", "2025-01-10", "2025-01-12"));
+        tasks.add(new Deadline("return book", "2025-01-10"));
+        tasks.add(new Deadline("file taxes", "2025-01-12"));
+        tasks.setStatus(4, true);
+        ReminderScheduler scheduler = new ReminderScheduler(tasks, reminder -> { }, 1);
+
+        LocalDate today = LocalDate.parse("2025-01-10");
+        assertEquals("Reminder! These tasks are coming up soon:\n"
+                + "1.[E][ ] project meeting (from: Jan 10 2025 to: Jan 12 2025)\n"
+                + "2.[D][ ] submit report (by: Jan 11 2025)", scheduler.reminderFor(today));
+
+        tasks.setStatus(4, false);
+        tasks.remove(0);
+        assertEquals("Reminder! These tasks are coming up soon:\n"
+                + "1.[E][ ] project meeting (from: Jan 10 2025 to: Jan 12 2025)\n"
+                + "2.[D][ ] return book (by: Jan 10 2025)", scheduler.reminderFor(today));
+        assertEquals("Reminder! This task is coming up soon:\n"
+                + "1.[D][ ] pay rent (by: Jan 09 2025)", scheduler.reminderFor(today.minusDays(2)));
+        assertEquals(null, scheduler.reminderFor(today.plusDays(3)));
+    }
+
+    /**
+     * Tests that starting the scheduler sends the reminder for today before it returns, on the calling thread.
+     */
+    @Test
+    public void testStartSendsReminder() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("water plants", LocalDate.now().toString()));
+        List<String> reminders = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        ReminderScheduler scheduler = new ReminderScheduler(tasks, reminder -> {
+            assertSame(caller, Thread.currentThread());
+            reminders.add(reminder);
+        }, 1);
+
+        scheduler.start();
+        scheduler.stop();
+        assertEquals(1, reminders.size());
+        assertTrue(reminders.get(0).contains("water plants"), reminders.get(0));
+    }
+}
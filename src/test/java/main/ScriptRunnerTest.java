@@ -0,0 +1,55 @@
+package main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import storage.Storage;
+import tasks.Task;
+import tasks.TaskBacking;
+import tasks.TaskList;
+import ui.Ui;
+
+/**
+ * Tests running scripts of commands with deferred persistence.
+ */
+public class ScriptRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that a script is executed, its failures counted and its result saved at the end,
+     * whichever kind of list holds the tasks.
+     */
+    @Test
+    public void testRunScript() throws Exception {
+        for (TaskBacking backing : TaskBacking.values()) {
+            String path = tempDir.resolve(backing + ".txt").toString();
+            Storage storage = new Storage(path, true);
+            TaskList tasks = new TaskList(backing.holding(storage.loadTasks()));
+            String script = "todo borrow book\n\ndeadline return book /by 2025-08-27\nmark 2\nmark 9\nbogus\n"
+                    + "delete 1\nbye\ntodo never run\n";
+
+            ScriptRunner runner = new ScriptRunner(tasks, storage, new Ui(), 2);
+            ScriptRunner.Summary summary = runner.run(new BufferedReader(new StringReader(script)));
+
+            assertEquals(6, summary.executed);
+            assertEquals(2, summary.failed);
+            assertFalse(new File(path + ".journal").exists());
+            List<Task> loaded = new Storage(path).loadTasks();
+            assertEquals(1, loaded.size());
+            assertEquals("return book", loaded.get(0).getDescription());
+            assertTrue(loaded.get(0).isDone(), backing.toString());
+        }
+    }
+}
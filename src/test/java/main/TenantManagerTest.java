@@ -0,0 +1,52 @@
+package main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import exceptions.AmadeusException;
+import storage.Storage;
+
+/**
+ * Tests serving several users through the cache of loaded task lists.
+ */
+public class TenantManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that least recently used lists are saved when evicted and loaded again on their next command.
+     */
+    @Test
+    public void testEvictionSavesLists() throws Exception {
+        TenantManager manager = new TenantManager(tempDir.toString(), 2 * TenantManager.ESTIMATED_TASK_BYTES);
+
+        manager.getResponse("alice", "todo borrow book");
+        manager.getResponse("bob", "todo return book");
+        manager.getResponse("carol", "todo read book");
+        assertEquals(3, manager.getMissCount());
+        assertEquals(1, manager.getEvictionCount());
+        assertEquals(1, new Storage(tempDir.resolve("alice.txt").toString()).loadTasks().size());
+
+        manager.getResponse("carol", "mark 1");
+        assertEquals(1, manager.getHitCount());
+        manager.getResponse("alice", "todo write review");
+        assertEquals(4, manager.getMissCount());
+        manager.flushAll();
+        assertEquals(2, new Storage(tempDir.resolve("alice.txt").toString()).loadTasks().size());
+    }
+
+    /**
+     * Tests that user ids that could escape the data directory are rejected.
+     */
+    @Test
+    public void testInvalidUserId() {
+        TenantManager manager = new TenantManager(tempDir.toString(), TenantManager.ESTIMATED_TASK_BYTES);
+        assertThrows(AmadeusException.class, () -> manager.getResponse("../alice", "list"));
+    }
+}
@@ -0,0 +1,44 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the bucketing and percentile estimates of latency histograms.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that every value falls in a bucket whose bounds contain it.
+     */
+    @Test
+    public void testBucketBounds() {
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long lower = LatencyHistogram.lowerBound(bucket);
+            assertTrue(lower <= value && value - lower < LatencyHistogram.bucketWidth(bucket), "value " + value);
+        }
+    }
+
+    /**
+     * Tests that percentiles are estimated within the bucket precision.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(0.5));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500.0, histogram.getMean(), 1e-9);
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_000, histogram.getPercentile(0.5), 500_000 / 16.0);
+        assertEquals(990_000, histogram.getPercentile(0.99), 990_000 / 16.0);
+        assertEquals(1_000_000, histogram.getPercentile(1.0), 1_000_000 / 16.0);
+    }
+}
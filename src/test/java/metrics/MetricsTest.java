@@ -0,0 +1,30 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import parser.Parser;
+
+/**
+ * Tests the statistics report.
+ */
+public class MetricsTest {
+
+    /**
+     * Tests that the report lists the commands recorded but not the stats command that shows it.
+     */
+    @Test
+    public void testReportLeavesOutStats() {
+        Parser.Command stats = Parser.parse("stats");
+        Parser.parse("todo read book");
+        Metrics.recordCommand(Parser.CommandType.TODO, 1000, 2000, 3000);
+
+        String report = Metrics.report();
+        assertTrue(report.contains("\ntodo: "), report);
+        assertFalse(report.contains("\nstats: "), report);
+        Metrics.recordCommand(stats.type, 1000, 0, 0);
+        assertFalse(Metrics.report().contains("\nstats: "));
+    }
+}
@@ -1,10 +1,17 @@
 package parser;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
+import exceptions.AmadeusException;
 import tasks.Deadline;
 import tasks.Event;
 import tasks.Task;
@@ -42,10 +49,146 @@ public class ParserTest {
         assertEquals("2025-09-01", eventCmd.args[1]);
         assertEquals("2025-09-03", eventCmd.args[2]);
 
+        assertEquals(Parser.CommandType.UNDO, Parser.parse("undo").type);
+        assertTrue(Parser.parse("redo").type.isMutating());
+        assertEquals(Parser.CommandType.FUZZY_FIND, Parser.parse("find~ projct meting").type);
+        assertEquals("projct meting", Parser.parse("find~ projct meting").args[0]);
+
         Parser.Command invalidCmd = Parser.parse("unknown command");
         assertEquals(Parser.CommandType.INVALID, invalidCmd.type);
     }
 
+    /**
+     * Tests parsing of inputs with unusual spacing or missing markers.
+     */
+    @Test
+    void testParseEdgeCases() {
+        Parser.Command markCmd = Parser.parse("  mark   2 ");
+        assertEquals(Parser.CommandType.MARK, markCmd.type);
+        assertEquals("2", markCmd.args[0]);
+
+        Parser.Command todoCmd = Parser.parse("todo  spaced");
+        assertEquals(" spaced", todoCmd.args[0]);
+
+        Parser.Command betweenCmd = Parser.parse("between 2025-09-01   2025-09-03");
+        assertEquals(Parser.CommandType.BETWEEN, betweenCmd.type);
+        assertEquals("2025-09-03", betweenCmd.args[1]);
+
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("between 2025-09-01").type);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("deadline Submit report").type);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("event Conference /from 2025-09-01").type);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("listing").type);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("list everything").type);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("   ").type);
+    }
+
+    /**
+     * Tests parsing of list commands selecting a page or a range of tasks.
+     */
+    @Test
+    void testParseListSelection() {
+        Parser.Command pageCmd = Parser.parse("list page 3");
+        assertEquals(Parser.CommandType.LIST, pageCmd.type);
+        assertEquals(Parser.PAGE_KEYWORD, pageCmd.args[0]);
+        assertEquals("3", pageCmd.args[1]);
+
+        Parser.Command rangeCmd = Parser.parse("list 100-200");
+        assertEquals(Parser.CommandType.LIST, rangeCmd.type);
+        assertEquals("100", rangeCmd.args[0]);
+        assertEquals("200", rangeCmd.args[1]);
+
+        Parser.Command sortCmd = Parser.parse("list sort:due page 2");
+        assertEquals(Parser.CommandType.LIST, sortCmd.type);
+        assertEquals("sort:due", sortCmd.args[0]);
+        assertEquals(Parser.PAGE_KEYWORD, sortCmd.args[1]);
+        assertEquals("2", sortCmd.args[2]);
+        assertEquals(1, Parser.parse("list sort:type").args.length);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("list sort:").type);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("list sort:due sort:type").type);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("list sort:due page").type);
+
+        assertEquals("3", Parser.parse("upcoming 3 days").args[0]);
+        assertEquals("1", Parser.parse("upcoming 1 day").args[0]);
+        assertEquals(0, Parser.parse("upcoming").args.length);
+        assertEquals(Parser.CommandType.INVALID, Parser.parse("upcoming 3 weeks").type);
+    }
+
+    /**
+     * Tests parsing of task selections and resolving them against a list.
+     */
+    @Test
+    void testTaskSelection() throws AmadeusException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        tasks.get(3).markAsDone();
+        tasks.get(20).markAsDone();
+
+        assertFalse(TaskSelection.isBulk("4"));
+        assertTrue(TaskSelection.isBulk("3,7"));
+        assertTrue(TaskSelection.isBulk("all done"));
+
+        assertArrayEquals(new int[]{2, 6, 11, 12, 13, 19},
+                TaskSelection.parse("3,7,12-14, 20 ,13").resolve(tasks));
+        assertArrayEquals(new int[]{3, 20}, TaskSelection.parse("all done").resolve(tasks));
+        assertEquals(23, TaskSelection.parse("all undone").resolve(tasks).length);
+        assertEquals(25, TaskSelection.parse("all").resolve(tasks).length);
+
+        assertThrows(AmadeusException.class, () -> TaskSelection.parse("3,,7"));
+        assertThrows(AmadeusException.class, () -> TaskSelection.parse("20-12"));
+        assertThrows(AmadeusException.class, () -> TaskSelection.parse("all finished"));
+        assertThrows(AmadeusException.class, () -> TaskSelection.parse("allx"));
+        assertThrows(AmadeusException.class, () -> TaskSelection.parse("1-26").resolve(tasks));
+        assertThrows(AmadeusException.class, () -> TaskSelection.parse("0,3").resolve(tasks));
+    }
+
+    /**
+     * Tests parsing and evaluating boolean queries over the fields of tasks.
+     */
+    @Test
+    void testTaskQuery() throws AmadeusException {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("return book", "2025-08-20"));
+        tasks.add(new Deadline("read book", "2025-09-10"));
+        tasks.add(new ToDo("buy book"));
+        tasks.add(new Event("book fair", "2025-09-01", "2025-09-03"));
+        tasks.add(new Deadline("submit report", "2025-08-01"));
+        tasks.get(2).markAsDone();
+        tasks.get(4).markAsDone();
+
+        assertFalse(TaskQuery.isQuery("book"));
+        assertFalse(TaskQuery.isQuery("salt and pepper"));
+        assertTrue(TaskQuery.isQuery("\"book\" and done"));
+        assertTrue(TaskQuery.isQuery("not done and type:deadline"));
+        assertTrue(TaskQuery.isQuery("by<2025-09-01"));
+
+        assertEquals(List.of(tasks.get(0)), matching(tasks,
+                "\"book\" and not done and type:deadline and by<2025-09-01"));
+        assertEquals(List.of(tasks.get(2), tasks.get(4)), matching(tasks, "done and (book or report)"));
+        assertEquals(List.of(tasks.get(1), tasks.get(3)), matching(tasks, "by>=2025-09-10 or from=2025-09-01"));
+        assertEquals(List.of(tasks.get(3)), matching(tasks, "not not type:event"));
+        assertEquals(List.of(tasks.get(0), tasks.get(1)), matching(tasks, "\"book\" and not (done or type:event)"));
+        assertEquals(List.of(tasks.get(3)), matching(tasks, "to>2025-09-02 and \"book fair\""));
+
+        assertThrows(AmadeusException.class, () -> TaskQuery.parse("\"book"));
+        assertThrows(AmadeusException.class, () -> TaskQuery.parse("(done"));
+        assertThrows(AmadeusException.class, () -> TaskQuery.parse("done and"));
+        assertThrows(AmadeusException.class, () -> TaskQuery.parse("done)"));
+        assertThrows(AmadeusException.class, () -> TaskQuery.parse("type:chore"));
+        assertThrows(AmadeusException.class, () -> TaskQuery.parse("by<2025-13-01"));
+    }
+
+    private static List<Task> matching(List<Task> tasks, String query) throws AmadeusException {
+        List<Task> result = new ArrayList<>();
+        for (Task task : tasks) {
+            if (TaskQuery.parse(query).getPredicate().test(task)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
     /**
      * Tests creation of Task objects from Command objects.
      * Ensures that the correct Task subclass is returned and that
@@ -0,0 +1,336 @@
+package storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tasks.Deadline;
+import tasks.Event;
+import tasks.Task;
+import tasks.TaskEdit;
+import tasks.TaskList;
+import tasks.ToDo;
+
+/**
+ * Tests saving and loading of tasks, including the journaled persistence mode.
+ */
+public class StorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that journal records are replayed on top of the snapshot when loading.
+     */
+    @Test
+    public void testJournalReplay() throws Exception {
+        String path = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(path, true);
+        List<Task> tasks = storage.loadTasks();
+
+        tasks.add(new ToDo("borrow book"));
+        storage.recordAdd(tasks, tasks.get(0));
+        tasks.add(new Deadline("return book", "2025-08-27"));
+        storage.recordAdd(tasks, tasks.get(1));
+        tasks.get(1).markAsDone();
+        storage.recordStatus(tasks, 1, true);
+        tasks.remove(0);
+        storage.recordDelete(tasks, 0);
+
+        List<Task> loaded = new Storage(path, true).loadTasks();
+        assertEquals(1, loaded.size());
+        assertEquals("return book", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    /**
+     * Tests that changes to several tasks are journaled in one write and replayed in order.
+     */
+    @Test
+    public void testBulkJournalReplay() throws Exception {
+        String path = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(path, true);
+        List<Task> tasks = storage.loadTasks();
+        for (int i = 0; i < 6; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        storage.saveTasks(tasks);
+
+        for (int index : new int[]{1, 2, 4}) {
+            tasks.get(index).markAsDone();
+        }
+        storage.recordStatuses(tasks, new int[]{1, 2, 4}, true);
+        tasks.remove(3);
+        tasks.remove(0);
+        storage.recordDeletes(tasks, new int[]{0, 3});
+
+        List<Task> loaded = new Storage(path, true).loadTasks();
+        assertEquals(4, loaded.size());
+        assertEquals("task 1", loaded.get(0).getDescription());
+        assertEquals("task 4", loaded.get(2).getDescription());
+        assertTrue(loaded.get(0).isDone() && loaded.get(1).isDone() && loaded.get(2).isDone());
+        assertFalse(loaded.get(3).isDone());
+    }
+
+    /**
+     * Tests that undoing a bulk deletion and a status change is replayed from the journal.
+     */
+    @Test
+    public void testUndoJournalReplay() throws Exception {
+        String path = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(path, true);
+        TaskList tasks = new TaskList(storage.loadTasks());
+        for (int i = 0; i < 6; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        storage.saveTasks(tasks.getTasks());
+
+        Task[] removed = {tasks.get(1), tasks.get(4)};
+        tasks.removeAll(new int[]{1, 4});
+        tasks.recordUndo(TaskEdit.insert(new int[]{1, 4}, removed));
+        storage.recordDeletes(tasks.getTasks(), new int[]{1, 4});
+        tasks.get(0).markAsDone();
+        tasks.recordUndo(TaskEdit.setStatus(new int[]{0}, new boolean[]{false}));
+        storage.recordStatus(tasks.getTasks(), 0, true);
+
+        storage.recordEdit(tasks.getTasks(), tasks.undo());
+        storage.recordEdit(tasks.getTasks(), tasks.undo());
+
+        List<Task> loaded = new Storage(path, true).loadTasks();
+        assertEquals(6, loaded.size());
+        for (int i = 0; i < 6; i++) {
+            assertEquals("task " + i, loaded.get(i).getDescription());
+            assertFalse(loaded.get(i).isDone());
+        }
+    }
+
+    /**
+     * Tests that the journal is folded into the snapshot once it passes the threshold.
+     */
+    @Test
+    public void testJournalCompaction() throws Exception {
+        String path = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(path, true, Storage.SnapshotFormat.TEXT, 64);
+        List<Task> tasks = storage.loadTasks();
+
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new ToDo("task " + i));
+            storage.recordAdd(tasks, tasks.get(i));
+        }
+
+        assertTrue(new File(path).exists());
+        assertTrue(new Storage(path).loadTasks().size() > 0);
+        assertEquals(10, new Storage(path, true).loadTasks().size());
+    }
+
+    /**
+     * Tests that a burst of changes is coalesced into few background writes, is on disk once flushed and
+     * leaves the same files as synchronous writes.
+     */
+    @Test
+    public void testAsyncWrites() throws Exception {
+        String syncPath = tempDir.resolve("sync.txt").toString();
+        String asyncPath = tempDir.resolve("async.txt").toString();
+        Storage sync = new Storage(syncPath, true);
+        Storage async = new Storage(asyncPath, true);
+        List<Task> syncTasks = sync.loadTasks();
+        List<Task> asyncTasks = async.loadTasks();
+        async.startAsyncWrites(10_000);
+
+        for (int i = 0; i < 500; i++) {
+            syncTasks.add(new ToDo("task " + i));
+            sync.recordAdd(syncTasks, syncTasks.get(i));
+            asyncTasks.add(new ToDo("task " + i));
+            async.recordAdd(asyncTasks, asyncTasks.get(i));
+        }
+        syncTasks.get(7).markAsDone();
+        sync.recordStatus(syncTasks, 7, true);
+        asyncTasks.get(7).markAsDone();
+        async.recordStatus(asyncTasks, 7, true);
+        async.flush();
+
+        long writes = async.getAsyncWriteCount();
+        assertTrue(writes >= 1 && writes <= 2, "writes: " + writes);
+        assertEquals(Files.readString(Path.of(syncPath + ".journal")),
+                Files.readString(Path.of(asyncPath + ".journal")));
+        List<Task> loaded = new Storage(asyncPath, true).loadTasks();
+        assertEquals(500, loaded.size());
+        assertEquals(syncTasks.toString(), loaded.toString());
+        async.close();
+    }
+
+    /**
+     * Tests that loading a text file in small parallel chunks gives the same tasks and snapshot tag as a
+     * sequential load, with CRLF line endings, a corrupted line and lines crossing chunk boundaries,
+     * and that a journal written against the snapshot is still replayed.
+     */
+    @Test
+    public void testParallelLoad() throws Exception {
+        Path crlfPath = tempDir.resolve("crlf.txt");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append(i % 3 == 0 ? "D | 0 | pay bill " + i + " | 2025-09-01"
+                    : i == 101 ? "corrupted line" : "T | " + (i % 2) + " | task " + i).append("\r\n");
+        }
+        text.append("T | 0 | last line without a newline");
+        Files.writeString(crlfPath, text.toString());
+
+        for (int chunkSize : new int[]{1, 37, 256, 1 << 20}) {
+            Storage sequential = new Storage(crlfPath.toString());
+            List<Task> expected = sequential.loadTasks();
+            Storage parallel = new Storage(crlfPath.toString());
+            parallel.setParallelLoad(0, chunkSize);
+            List<Task> loaded = parallel.loadTasks();
+            assertEquals(200, loaded.size());
+            assertEquals(expected.toString(), loaded.toString());
+            assertEquals(sequential.getSnapshotTag(), parallel.getSnapshotTag());
+        }
+
+        String path = tempDir.resolve("tasks.txt").toString();
+        Storage storage = new Storage(path, true);
+        List<Task> tasks = storage.loadTasks();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(new Event("meeting " + i, "2025-09-01", "2025-09-03"));
+        }
+        storage.saveTasks(tasks);
+        tasks.add(new ToDo("journaled task"));
+        storage.recordAdd(tasks, tasks.get(100));
+
+        Storage parallel = new Storage(path, true);
+        parallel.setParallelLoad(0, 64);
+        List<Task> loaded = parallel.loadTasks();
+        assertEquals(101, loaded.size());
+        assertEquals("journaled task", loaded.get(100).getDescription());
+    }
+
+    /**
+     * Tests that a text file converted to a binary snapshot loads back the same tasks.
+     */
+    @Test
+    public void testBinaryConversion() throws Exception {
+        String textPath = tempDir.resolve("tasks.txt").toString();
+        String binaryPath = tempDir.resolve("tasks.bin").toString();
+        Storage text = new Storage(textPath);
+        List<Task> tasks = text.loadTasks();
+        tasks.add(new ToDo("borrow book"));
+        tasks.add(new Deadline("return book", "2025-08-27"));
+        tasks.add(new Event("project meeting", "2025-09-01", "2025-09-03"));
+        tasks.get(2).markAsDone();
+        text.saveTasks(tasks);
+
+        Storage.convertToBinary(textPath, binaryPath);
+        List<Task> loaded = new Storage(binaryPath, false, Storage.SnapshotFormat.BINARY).loadTasks();
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+        }
+    }
+
+    /**
+     * Tests that a converted file stays binary when saved by a storage configured for text, as the app uses.
+     */
+    @Test
+    public void testBinaryFormatKeptOnSave() throws Exception {
+        String path = tempDir.resolve("tasks.txt").toString();
+        Storage text = new Storage(path, true);
+        List<Task> tasks = text.loadTasks();
+        tasks.add(new ToDo("borrow book"));
+        tasks.add(new Deadline("return book", "2025-08-27"));
+        text.saveTasks(tasks);
+        tasks.add(new ToDo("read book"));
+        text.recordAdd(tasks, tasks.get(2));
+
+        assertEquals(3, Storage.convertInPlace(path));
+        assertTrue(BinaryTaskFile.isBinary(new File(path)));
+        Storage storage = new Storage(path, true);
+        List<Task> loaded = storage.loadTasks();
+        loaded.get(0).markAsDone();
+        storage.saveTasks(loaded);
+
+        assertTrue(BinaryTaskFile.isBinary(new File(path)));
+        List<Task> reloaded = new Storage(path, true).loadTasks();
+        assertEquals(3, reloaded.size());
+        assertEquals("[T][X] borrow book", reloaded.get(0).toString());
+        assertEquals("[T][ ] read book", reloaded.get(2).toString());
+    }
+
+    /**
+     * Tests that a snapshot with a string table loads back the same tasks and that tasks with equal
+     * descriptions share one description string.
+     */
+    @Test
+    public void testStringTableSharesDescriptions() throws Exception {
+        String path = tempDir.resolve("tasks.bin").toString();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(i % 2 == 0 ? new ToDo("water plants") : new Deadline("pay rent", "2025-09-0" + i));
+        }
+        tasks.get(3).markAsDone();
+        new Storage(path, false, Storage.SnapshotFormat.BINARY_STRING_TABLE).saveTasks(tasks);
+
+        List<Task> loaded = new Storage(path).loadTasks();
+        assertEquals(10, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+        }
+        assertSame(loaded.get(0).getDescription(), loaded.get(8).getDescription());
+    }
+
+    /**
+     * Tests that threads decoding a mapped snapshot at the same time all get the same, fully built task
+     * for each position.
+     */
+    @Test
+    public void testMappedListConcurrentReads() throws Exception {
+        String path = tempDir.resolve("tasks.bin").toString();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            tasks.add(new ToDo("task " + (i % 100)));
+        }
+        new Storage(path, false, Storage.SnapshotFormat.BINARY_STRING_TABLE).saveTasks(tasks);
+        List<Task> loaded = new Storage(path).loadTasks();
+
+        int threadCount = 4;
+        Task[][] seen = new Task[threadCount][];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                Task[] read = new Task[loaded.size()];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < read.length; i++) {
+                    read[i] = loaded.get(i);
+                }
+                seen[thread] = read;
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals("task " + (i % 100), seen[0][i].getDescription());
+            for (int t = 1; t < threadCount; t++) {
+                assertSame(seen[0][i], seen[t][i]);
+            }
+        }
+    }
+}
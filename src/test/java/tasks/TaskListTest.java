@@ -0,0 +1,368 @@
+package tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests searching and updating a TaskList.
+ */
+public class TaskListTest {
+
+    /**
+     * Tests that indexed searches match substrings and return tasks in list order.
+     */
+    @Test
+    public void testFindTasks() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDo("borrow book"));
+        tasks.add(new ToDo("read notebook"));
+        tasks.add(new ToDo("project meeting"));
+
+        assertEquals(List.of(tasks.get(0), tasks.get(1)), tasks.findTasks("book"));
+        assertEquals(List.of(tasks.get(0)), tasks.findTasks("row boo"));
+        assertEquals(List.of(tasks.get(2)), tasks.findTasks("ject"));
+        assertEquals(new ArrayList<Task>(), tasks.findTasks("books"));
+    }
+
+    /**
+     * Tests that the index stays consistent with additions and removals made after a search.
+     */
+    @Test
+    public void testFindAfterUpdates() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDo("borrow book"));
+        tasks.findTasks("book");
+
+        tasks.add(new ToDo("return book"));
+        tasks.remove(0);
+        tasks.add(new Deadline("book flight", "2025-09-01"));
+
+        assertEquals(List.of(tasks.get(0), tasks.get(1)), tasks.findTasks("book"));
+        assertEquals(new ArrayList<Task>(), tasks.findTasks("borrow"));
+    }
+
+    /**
+     * Tests date-range queries over deadlines and events.
+     */
+    @Test
+    public void testDateQueries() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("return book", "2025-01-05"));
+        tasks.add(new Event("project meeting", "2025-01-03", "2025-01-08"));
+        tasks.add(new Deadline("submit report", "2025-01-10"));
+        tasks.add(new ToDo("borrow book"));
+
+        assertEquals(List.of(tasks.get(0)), tasks.findDueBy(LocalDate.parse("2025-01-07")));
+        assertEquals(List.of(tasks.get(1)), tasks.findBetween(LocalDate.parse("2025-01-08"),
+                LocalDate.parse("2025-01-08")));
+        assertEquals(List.of(tasks.get(1), tasks.get(2)), tasks.findBetween(LocalDate.parse("2025-01-06"),
+                LocalDate.parse("2025-01-20")));
+
+        tasks.remove(1);
+        assertEquals(List.of(tasks.get(1)), tasks.findBetween(LocalDate.parse("2025-01-06"),
+                LocalDate.parse("2025-01-20")));
+    }
+
+    /**
+     * Tests that a columnar backing store behaves like the default list, including marking through views,
+     * and that a view taken before a structural change fails fast instead of losing its change.
+     */
+    @Test
+    public void testColumnarBacking() {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        TaskList tasks = new TaskList(store);
+        tasks.add(new ToDo("borrow book"));
+        tasks.add(new Deadline("return book", "2025-08-27"));
+        tasks.add(new Event("project meeting", "2025-09-01", "2025-09-03"));
+
+        tasks.get(1).markAsDone();
+        tasks.remove(0);
+
+        assertEquals("[D][X] return book (by: Aug 27 2025)", tasks.get(0).toString());
+        assertEquals("[E][ ] project meeting (from: Sep 01 2025 to: Sep 03 2025)", tasks.get(1).toString());
+        assertEquals(1, tasks.findTasks("meeting").size());
+
+        Task stale = store.get(1);
+        tasks.add(new ToDo("read book"));
+        assertThrows(ConcurrentModificationException.class, stale::markAsDone);
+        assertFalse(stale.isDone());
+        assertEquals("[E][ ] project meeting (from: Sep 01 2025 to: Sep 03 2025)", tasks.get(1).toString());
+    }
+
+    /**
+     * Tests that a tree backing store matches an array list under random inserts, removals and iteration.
+     */
+    @Test
+    public void testTreeBacking() {
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(new ToDo("task " + i));
+        }
+        TaskTree tree = new TaskTree(expected);
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            if (random.nextBoolean() && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), tree.remove(index));
+            } else {
+                int index = random.nextInt(expected.size() + 1);
+                Task task = new ToDo("added " + i);
+                expected.add(index, task);
+                tree.add(index, task);
+            }
+        }
+        assertEquals(expected, tree);
+
+        Iterator<Task> it = tree.iterator();
+        for (int i = 0; it.hasNext(); i++) {
+            it.next();
+            if (i % 3 == 0) {
+                it.remove();
+            }
+        }
+        for (int i = expected.size() - 1; i >= 0; i--) {
+            if (i % 3 == 0) {
+                expected.remove(i);
+            }
+        }
+        assertEquals(expected, tree);
+    }
+
+    /**
+     * Tests that searches stay correct while many tasks are indexed as they are added
+     * and most of them are then deleted from the front of the list.
+     */
+    @Test
+    public void testFindAfterMassDelete() {
+        TaskList tasks = new TaskList(new TaskTree());
+        tasks.findTasks("item");
+        for (int i = 0; i < 5000; i++) {
+            tasks.add(new Deadline("item " + i + ";", "2025-01-01"));
+        }
+        assertEquals(5000, tasks.findTasks("item").size());
+        assertEquals(5000, tasks.findDueBy(LocalDate.parse("2025-01-01")).size());
+
+        for (int i = 0; i < 4000; i++) {
+            tasks.remove(0);
+            if (i % 1000 == 0) {
+                assertEquals(List.of(tasks.get(0)), tasks.findTasks("item " + (i + 1) + ";"));
+            }
+        }
+        tasks.add(new ToDo("item new"));
+        assertEquals(1001, tasks.findTasks("item").size());
+        assertEquals(List.of(tasks.get(1000)), tasks.findTasks("new"));
+        assertEquals(1000, tasks.findDueBy(LocalDate.parse("2025-01-01")).size());
+    }
+
+    /**
+     * Tests that removing several tasks at once keeps the order of the rest and the search indexes
+     * on every backing list.
+     */
+    @Test
+    public void testRemoveAll() {
+        List<List<Task>> backings = List.of(new ArrayList<>(), new TaskTree(), new ColumnarTaskStore());
+        for (List<Task> backing : backings) {
+            TaskList tasks = new TaskList(backing);
+            for (int i = 0; i < 10; i++) {
+                tasks.add(new ToDo("task " + i + ";"));
+            }
+            tasks.findTasks("task");
+
+            assertEquals(4, tasks.removeAll(new int[]{0, 3, 4, 9}));
+            assertEquals(6, tasks.size());
+            assertEquals("[T][ ] task 5;", tasks.get(2).toString());
+            assertEquals(6, tasks.findTasks("task").size());
+            assertEquals("[T][ ] task 6;", tasks.findTasks("task 6;").get(0).toString());
+            assertEquals(new ArrayList<Task>(), tasks.findTasks("task 3;"));
+        }
+    }
+
+    /**
+     * Tests that undoing and redoing additions, deletions and status changes restores the list and
+     * keeps the search indexes on every backing list.
+     */
+    @Test
+    public void testUndoRedo() {
+        List<List<Task>> backings = List.of(new ArrayList<>(), new TaskTree(), new ColumnarTaskStore());
+        for (List<Task> backing : backings) {
+            TaskList tasks = new TaskList(backing);
+            for (int i = 0; i < 10; i++) {
+                tasks.add(new ToDo("task " + i + ";"));
+            }
+            tasks.findTasks("task");
+            String original = backing.toString();
+
+            int[] removed = {0, 3, 4, 9};
+            Task[] removedTasks = new Task[removed.length];
+            for (int i = 0; i < removed.length; i++) {
+                removedTasks[i] = tasks.get(removed[i]);
+            }
+            tasks.removeAll(removed);
+            tasks.recordUndo(TaskEdit.insert(removed, removedTasks));
+            tasks.get(1).markAsDone();
+            tasks.recordUndo(TaskEdit.setStatus(new int[]{1}, new boolean[]{false}));
+
+            assertEquals(TaskEdit.Kind.SET_STATUS, tasks.undo().getKind());
+            assertEquals(TaskEdit.Kind.INSERT, tasks.undo().getKind());
+            assertEquals(null, tasks.undo());
+            assertEquals(original, backing.toString());
+            assertEquals(10, tasks.findTasks("task").size());
+            assertEquals("[T][ ] task 3;", tasks.findTasks("task 3;").get(0).toString());
+
+            assertEquals(TaskEdit.Kind.REMOVE, tasks.redo().getKind());
+            assertEquals(6, tasks.size());
+            assertEquals(new ArrayList<Task>(), tasks.findTasks("task 3;"));
+            tasks.add(new ToDo("task new;"));
+            tasks.recordUndo(TaskEdit.remove(new int[]{6}));
+            assertEquals(null, tasks.redo());
+            tasks.undo();
+            assertEquals(6, tasks.findTasks("task").size());
+        }
+    }
+
+    /**
+     * Tests that fuzzy searches tolerate typos and case, rank closer matches first and follow changes to the list.
+     */
+    @Test
+    public void testFindFuzzy() {
+        assertEquals(1, TextIndex.editDistance("meting", "meeting", 2));
+        assertEquals(3, TextIndex.editDistance("kitten", "sitting", 2));
+        assertEquals(1, TextIndex.editDistance("boko", "book", 1));
+        assertEquals(2, TextIndex.editDistance("abcd", "badc", 2));
+
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDo("project meeting"));
+        tasks.add(new ToDo("buy milk"));
+        tasks.add(new ToDo("Meeting notes"));
+        tasks.add(new ToDo("meetings"));
+
+        List<TaskMatch> matches = tasks.findFuzzy("meting", 10);
+        assertEquals(3, matches.size());
+        assertEquals("project meeting", matches.get(0).getTask().getDescription());
+        assertEquals("Meeting notes", matches.get(1).getTask().getDescription());
+        assertEquals("meetings", matches.get(2).getTask().getDescription());
+        assertTrue(matches.get(1).getScore() > matches.get(2).getScore());
+
+        assertEquals(1, tasks.findFuzzy("projct meting", 10).size());
+        assertEquals(1.0, tasks.findFuzzy("project meeting", 10).get(0).getScore(), 1e-9);
+        assertEquals(0, tasks.findFuzzy("xylophone", 10).size());
+        assertEquals(0, tasks.findFuzzy("projct milk", 10).size());
+        assertEquals("buy milk", tasks.findFuzzy("mlik", 10).get(0).getTask().getDescription());
+
+        TaskList swaps = new TaskList();
+        swaps.add(new ToDo("read book"));
+        swaps.add(new ToDo("call mom"));
+        assertEquals("read book", swaps.findFuzzy("boko", 10).get(0).getTask().getDescription());
+        assertEquals("call mom", swaps.findFuzzy("mmo", 10).get(0).getTask().getDescription());
+        assertEquals("read book", swaps.findFuzzy("raed", 10).get(0).getTask().getDescription());
+
+        tasks.add(new ToDo("team meetng"));
+        tasks.remove(0);
+        matches = tasks.findFuzzy("meeting", 2);
+        assertEquals(2, matches.size());
+        assertEquals("Meeting notes", matches.get(0).getTask().getDescription());
+        assertEquals(0, tasks.findFuzzy("project", 10).size());
+        assertEquals("team meetng", tasks.findFuzzy("meetng", 1).get(0).getTask().getDescription());
+
+        // A limited search stops early, so it must agree with the start of a search that keeps every match
+        Random random = new Random(7);
+        String[] words = {"meeting", "meetings", "meting", "Meeting", "notes", "note", "nots", "plan"};
+        TaskList many = new TaskList();
+        for (int i = 0; i < 500; i++) {
+            many.add(new ToDo(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]));
+        }
+        for (String query : new String[]{"meeting", "meetng notes", "note plan"}) {
+            List<TaskMatch> all = many.findFuzzy(query, Integer.MAX_VALUE);
+            List<TaskMatch> top = many.findFuzzy(query, 5);
+            assertEquals(5, top.size());
+            for (int i = 0; i < top.size(); i++) {
+                assertSame(all.get(i).getTask(), top.get(i).getTask());
+            }
+        }
+    }
+
+    /**
+     * Tests that pages of the sorted views match a stable sort of the list after random additions, removals,
+     * status changes and undos on every backing list.
+     */
+    @Test
+    public void testSortedPositions() {
+        List<List<Task>> backings = List.of(new ArrayList<>(), new TaskTree(), new ColumnarTaskStore());
+        for (List<Task> backing : backings) {
+            TaskList tasks = new TaskList(backing);
+            Random random = new Random(11);
+            for (int step = 0; step < 400; step++) {
+                int op = random.nextInt(5);
+                if (op <= 1 || tasks.size() == 0) {
+                    String date = "2025-01-" + (10 + random.nextInt(20));
+                    int type = random.nextInt(3);
+                    tasks.add(type == 0 ? new ToDo("todo " + step)
+                            : type == 1 ? new Deadline("deadline " + step, date)
+                            : new Event("event " + step, date, "2025-02-01"));
+                } else if (op == 2) {
+                    int index = random.nextInt(tasks.size());
+                    tasks.recordUndo(TaskEdit.insert(new int[]{index}, new Task[]{tasks.remove(index)}));
+                } else if (op == 3) {
+                    int index = random.nextInt(tasks.size());
+                    boolean wasDone = tasks.setStatus(index, random.nextBoolean());
+                    tasks.recordUndo(TaskEdit.setStatus(new int[]{index}, new boolean[]{wasDone}));
+                } else {
+                    tasks.undo();
+                }
+
+                for (TaskOrder order : TaskOrder.values()) {
+                    List<Integer> expected = new ArrayList<>();
+                    for (int i = 0; i < tasks.size(); i++) {
+                        expected.add(i);
+                    }
+                    expected.sort((a, b) -> Long.compare(order.keyOf(tasks.get(a)), order.keyOf(tasks.get(b))));
+                    int from = Math.min(step % 7, tasks.size());
+                    int[] page = tasks.sortedPositions(order, from, from + 5);
+                    assertEquals(expected.subList(from, Math.min(from + 5, tasks.size())),
+                            Arrays.stream(page).boxed().toList());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that filtering in parallel chunks gives the same tasks in the same order as filtering in sequence.
+     */
+    @Test
+    public void testFilter() {
+        TaskList tasks = new TaskList();
+        Random random = new Random(3);
+        for (int i = 0; i < TaskList.PARALLEL_FILTER_THRESHOLD + 1000; i++) {
+            Task task = new ToDo("task " + random.nextInt(100));
+            if (random.nextBoolean()) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+
+        Predicate<Task> predicate = task -> task.isDone() && task.getDescription().endsWith("7");
+        ArrayList<Task> expected = new ArrayList<>();
+        for (Task task : tasks.getTasks()) {
+            if (predicate.test(task)) {
+                expected.add(task);
+            }
+        }
+        assertEquals(expected, tasks.filter(predicate));
+        assertEquals(expected, tasks.filterInParallel(predicate));
+    }
+}
@@ -0,0 +1,36 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the formatting and buffering of UI output.
+ */
+public class UiTest {
+
+    /**
+     * Tests that messages are framed by borders and only reach the sink when flushed,
+     * and that messages given line by line are formatted the same way.
+     */
+    @Test
+    public void testBufferedOutput() {
+        StringWriter sink = new StringWriter();
+        Ui ui = new Ui(sink);
+
+        ui.printMessage("Hello!\nWhat can I do for you?");
+        assertEquals("", sink.toString());
+        ui.flush();
+        String border = "    ____________________________________________________________";
+        String n = System.lineSeparator();
+        String expected = border + n + "     Hello!" + n + "     What can I do for you?" + n + border + n + n;
+        assertEquals(expected, sink.toString());
+
+        ui.printLines(List.of("Hello!", "What can I do for you?").iterator());
+        ui.flush();
+        assertEquals(expected + expected, sink.toString());
+    }
+}